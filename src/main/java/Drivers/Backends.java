@@ -0,0 +1,95 @@
+package Drivers;
+
+import org.htmlunit.BrowserVersion;
+import org.htmlunit.WebClient;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.util.List;
+
+/**
+ * Backends holds the DriverBackend implementations that ship with the framework.
+ */
+final class Backends {
+
+    private Backends() {
+    }
+
+    /**
+     * Returns the built-in backends: the three real browsers and the in-process HtmlUnit engine.
+     *
+     * @return the built-in DriverBackend instances
+     */
+    static List<DriverBackend> builtIn() {
+        return List.of(new Chrome(), new Edge(), new Firefox(), new HtmlUnit());
+    }
+
+    static final class Chrome implements DriverBackend {
+        @Override
+        public String name() {
+            return "chrome";
+        }
+
+        @Override
+        public WebDriver create(LaunchProfile profile) {
+            return new ChromeDriver(profile.chromeOptions());
+        }
+    }
+
+    static final class Edge implements DriverBackend {
+        @Override
+        public String name() {
+            return "edge";
+        }
+
+        @Override
+        public WebDriver create(LaunchProfile profile) {
+            return new EdgeDriver(profile.edgeOptions());
+        }
+    }
+
+    static final class Firefox implements DriverBackend {
+        @Override
+        public String name() {
+            return "firefox";
+        }
+
+        @Override
+        public WebDriver create(LaunchProfile profile) {
+            return new FirefoxDriver(profile.firefoxOptions());
+        }
+    }
+
+    /**
+     * In-JVM engine with JavaScript enabled. No browser process is spawned, which makes it suitable
+     * for checks that do not depend on real rendering, such as search results and the login flow.
+     */
+    static final class HtmlUnit implements DriverBackend {
+        @Override
+        public String name() {
+            return "htmlunit";
+        }
+
+        @Override
+        public WebDriver create(LaunchProfile profile) {
+            return new HtmlUnitDriver(BrowserVersion.CHROME, true) {
+                @Override
+                protected WebClient modifyWebClient(WebClient client) {
+                    // Third-party storefront scripts must not abort page loads.
+                    // CSS stays enabled because isDisplayed() depends on computed styles.
+                    client.getOptions().setThrowExceptionOnScriptError(false);
+                    client.getOptions().setPrintContentOnFailingStatusCode(false);
+                    return client;
+                }
+            };
+        }
+
+        @Override
+        public boolean hasWindow() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Drivers;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverBackend is the service interface for anything that can start a WebDriver session.
+ * Backends register with DriverFactory by name, either directly through
+ * DriverFactory.register or through a META-INF/services/Drivers.DriverBackend entry,
+ * and the suite XML "br" parameter selects one of them.
+ */
+public interface DriverBackend {
+
+    /**
+     * The name used to select this backend, e.g. "chrome" or "htmlunit".
+     *
+     * @return the lower-case backend name
+     */
+    String name();
+
+    /**
+     * Starts a new session for this backend.
+     *
+     * @param profile The launch profile in use for this run
+     * @return a new WebDriver session
+     */
+    WebDriver create(LaunchProfile profile);
+
+    /**
+     * Whether the backend has a real window that can be maximised.
+     *
+     * @return true for real browsers
+     */
+    default boolean hasWindow() {
+        return true;
+    }
+}
@@ -0,0 +1,169 @@
+package Drivers;
+
+import Support.CommandTimings;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DriverFactory launches and configures new browser sessions through the registered DriverBackends.
+ * It is used directly by the test base and by the DriverPool when it pre-launches sessions.
+ */
+public final class DriverFactory {
+
+    private static final Logger logger = LogManager.getLogger(DriverFactory.class);
+
+    // Profile used for every launch in this run, including background launches by the DriverPool
+    private static volatile LaunchProfile profile = LaunchProfile.DEFAULT;
+
+    // Implicit wait applied to new sessions; page objects use explicit waits, so this can be turned off
+    private static volatile Duration implicitWait = Duration.ofSeconds(10);
+
+    // Whether new sessions are wrapped so every command's latency is recorded
+    private static volatile boolean commandTimings = true;
+
+    // Launch times per "browser/profile": count, total and max in milliseconds
+    private static final Map<String, AtomicLong[]> launchTimes = new ConcurrentHashMap<>();
+
+    // Registered backends by name: the built-ins plus any found through ServiceLoader
+    private static final Map<String, DriverBackend> backends = new ConcurrentHashMap<>();
+
+    static {
+        Backends.builtIn().forEach(DriverFactory::register);
+        ServiceLoader.load(DriverBackend.class).forEach(DriverFactory::register);
+    }
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Sets the launch profile for subsequent launches.
+     *
+     * @param launchProfile The profile to launch browsers with
+     */
+    public static void setLaunchProfile(LaunchProfile launchProfile) {
+        profile = launchProfile;
+    }
+
+    /**
+     * Returns the launch profile currently in use.
+     *
+     * @return the active LaunchProfile
+     */
+    public static LaunchProfile getLaunchProfile() {
+        return profile;
+    }
+
+    /**
+     * Sets the implicit wait applied to subsequently launched sessions.
+     *
+     * @param timeout The implicit wait, or Duration.ZERO to turn it off
+     */
+    public static void setImplicitWait(Duration timeout) {
+        implicitWait = timeout;
+    }
+
+    /**
+     * Sets whether subsequently launched sessions record per-command latencies (see CommandTimings).
+     *
+     * @param enabled true to wrap new sessions in the timing listener
+     */
+    public static void setCommandTimings(boolean enabled) {
+        commandTimings = enabled;
+    }
+
+    /**
+     * Registers a backend under its name, replacing any backend already registered with that name.
+     *
+     * @param backend The backend to register
+     */
+    public static void register(DriverBackend backend) {
+        backends.put(backend.name().toLowerCase(), backend);
+    }
+
+    /**
+     * Looks up the backend registered under the given name.
+     *
+     * @param name The backend name, e.g. the suite XML "br" parameter
+     * @return the registered DriverBackend
+     * @throws IllegalArgumentException if no backend is registered under that name
+     */
+    public static DriverBackend backend(String name) {
+        DriverBackend backend = name == null ? null : backends.get(name.trim().toLowerCase());
+        if (backend == null) {
+            throw new IllegalArgumentException("Invalid browser name: " + name
+                    + ". Registered backends: " + new TreeMap<>(backends).keySet());
+        }
+        return backend;
+    }
+
+    /**
+     * Launches a new browser session with the active launch profile and applies cookies, timeouts and window settings.
+     *
+     * @param browser The backend to launch, e.g. "chrome", "edge", "firefox" or "htmlunit"
+     * @return the configured WebDriver
+     * @throws IllegalArgumentException if no backend is registered under that name
+     */
+    public static WebDriver createDriver(String browser) {
+        DriverBackend backend = backend(browser);
+        LaunchProfile launchProfile = profile;
+        long start = System.nanoTime();
+
+        logger.info("Launching " + backend.name() + " browser...");
+        WebDriver driver = backend.create(launchProfile);
+        NetworkMode.attach(driver); // Block configured URLs and resource types, if any
+
+        // Clear all cookies and set timeouts
+        driver.manage().deleteAllCookies();
+        logger.info("Deleted all cookies.");
+        driver.manage().timeouts().implicitlyWait(implicitWait);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(10));
+        logger.info("Set implicit wait and page load timeout.");
+
+        // Maximize the browser window; lean profiles already have a fixed viewport
+        if (launchProfile.maximizeWindow() && backend.hasWindow()) {
+            driver.manage().window().maximize();
+            logger.info("Maximized browser window.");
+        }
+
+        // Time every later command; launch and setup calls are covered by the launch stats
+        if (commandTimings) {
+            driver = CommandTimings.instrument(driver);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        recordLaunch(backend.name() + "/" + launchProfile.name().toLowerCase(), elapsedMs);
+        logger.info("Launched " + backend.name() + " with " + launchProfile + " profile in " + elapsedMs + " ms.");
+        return driver;
+    }
+
+    /**
+     * Summarises launch times per browser and profile, e.g. to compare the LEAN and DEFAULT paths.
+     *
+     * @return one entry per browser/profile with launch count, average and max in milliseconds
+     */
+    public static String launchStats() {
+        Map<String, String> summary = new TreeMap<>();
+        launchTimes.forEach((key, times) -> {
+            long count = times[0].get();
+            summary.put(key, String.format("launches=%d, avgMs=%d, maxMs=%d",
+                    count, count == 0 ? 0 : times[1].get() / count, times[2].get()));
+        });
+        return summary.toString();
+    }
+
+    private static void recordLaunch(String key, long elapsedMs) {
+        AtomicLong[] times = launchTimes.computeIfAbsent(key,
+                k -> new AtomicLong[]{new AtomicLong(), new AtomicLong(), new AtomicLong()});
+        times[0].incrementAndGet();
+        times[1].addAndGet(elapsedMs);
+        times[2].accumulateAndGet(elapsedMs, Math::max);
+    }
+}
@@ -0,0 +1,109 @@
+package Drivers;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DriverManager holds the WebDriver session for the current thread.
+ * Every TestNG worker thread gets its own browser session, so suites can run
+ * with parallel="classes" or parallel="methods" without sessions clobbering each other.
+ */
+public final class DriverManager {
+
+    // WebDriver session confined to the current thread
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+
+    // Every live session across all threads, so stragglers can be quit at suite end
+    private static final Set<WebDriver> SESSIONS = ConcurrentHashMap.newKeySet();
+
+    private DriverManager() {
+    }
+
+    /**
+     * Returns the WebDriver bound to the current thread.
+     *
+     * @return the current thread's WebDriver, or null if none has been started
+     */
+    public static WebDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    /**
+     * Binds the given WebDriver to the current thread.
+     * Any session previously bound to this thread is quit first.
+     *
+     * @param driver WebDriver instance to bind
+     */
+    public static void setDriver(WebDriver driver) {
+        WebDriver previous = DRIVER.get();
+        if (previous != null && previous != driver) {
+            quit(previous);
+        }
+        DRIVER.set(driver);
+        SESSIONS.add(driver);
+    }
+
+    /**
+     * Checks whether the current thread has a WebDriver bound to it.
+     *
+     * @return true if a session is bound to the current thread
+     */
+    public static boolean hasDriver() {
+        return DRIVER.get() != null;
+    }
+
+    /**
+     * Quits the current thread's WebDriver and unbinds it.
+     */
+    public static void quitDriver() {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        if (driver != null) {
+            quit(driver);
+        }
+    }
+
+    /**
+     * Unbinds the current thread's WebDriver without quitting it, e.g. to hand it back to the DriverPool.
+     *
+     * @return the WebDriver that was bound, or null if none was
+     */
+    public static WebDriver releaseDriver() {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        if (driver != null) {
+            SESSIONS.remove(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Quits every session that is still alive, regardless of the thread that started it.
+     */
+    public static void quitAll() {
+        DRIVER.remove();
+        for (WebDriver driver : SESSIONS) {
+            quit(driver);
+        }
+    }
+
+    /**
+     * Returns the number of sessions that are currently alive.
+     *
+     * @return the live session count
+     */
+    public static int activeSessions() {
+        return SESSIONS.size();
+    }
+
+    private static void quit(WebDriver driver) {
+        SESSIONS.remove(driver);
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // The session is already gone; nothing left to release
+        }
+    }
+}
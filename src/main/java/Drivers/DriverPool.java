@@ -0,0 +1,242 @@
+package Drivers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DriverPool keeps pre-launched browser sessions, keyed by browser name, so test classes
+ * can lease a warm session instead of paying for a cold browser start.
+ * Sessions are reset between leases (tabs, cookies and storage) rather than relaunched,
+ * and the pool tops itself back up in the background while tests run.
+ */
+public final class DriverPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+    private static final DriverPool INSTANCE = new DriverPool();
+
+    // Idle, already reset sessions per browser name
+    private final Map<String, ConcurrentLinkedDeque<WebDriver>> idle = new ConcurrentHashMap<>();
+    // Sessions being launched in the background per browser name
+    private final Map<String, AtomicInteger> launching = new ConcurrentHashMap<>();
+    private volatile ExecutorService refiller = newRefiller();
+
+    private volatile int targetSize = 1;
+    private volatile boolean closed;
+
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong resetNanos = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    private DriverPool() {
+    }
+
+    /**
+     * Returns the pool shared by every test class in this JVM.
+     *
+     * @return the shared DriverPool
+     */
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets how many idle sessions the pool keeps warm per browser.
+     *
+     * @param size number of idle sessions to keep per browser
+     */
+    public void setTargetSize(int size) {
+        this.targetSize = Math.max(0, size);
+    }
+
+    /**
+     * Leases a session for the given browser. A warm session is returned when one is idle,
+     * otherwise a new one is launched on the calling thread. Either way a background refill is scheduled.
+     *
+     * @param browser The browser name
+     * @return a ready WebDriver
+     * @throws IllegalArgumentException if no backend is registered under that name
+     */
+    public WebDriver lease(String browser) {
+        String key = key(browser);
+        WebDriver driver = idleFor(key).pollFirst();
+        if (driver != null) {
+            hits.incrementAndGet();
+            logger.info("Leased warm " + key + " session from the pool.");
+        } else {
+            misses.incrementAndGet();
+            logger.info("No warm " + key + " session available, launching a new one.");
+            driver = DriverFactory.createDriver(key);
+        }
+        refill(key);
+        return driver;
+    }
+
+    /**
+     * Returns a session to the pool. It is reset first; if the reset fails or twice the target
+     * size is already idle, the session is quit instead.
+     *
+     * @param browser The browser name the session was leased for
+     * @param driver  The session to return
+     */
+    public void release(String browser, WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        String key = key(browser);
+        if (closed || !reset(driver)) {
+            discard(driver);
+            return;
+        }
+        ConcurrentLinkedDeque<WebDriver> queue = idleFor(key);
+        if (queue.size() >= targetSize * 2) {
+            discard(driver);
+        } else {
+            queue.offerFirst(driver); // Reuse returned sessions before background-launched spares
+        }
+    }
+
+    /**
+     * Waits for background launches to finish and quits every idle session.
+     * The pool can be used again afterwards, e.g. by the next suite file in the same JVM.
+     */
+    public synchronized void shutdown() {
+        closed = true;
+        ExecutorService current = refiller;
+        current.shutdown();
+        try {
+            current.awaitTermination(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ConcurrentLinkedDeque<WebDriver> queue : idle.values()) {
+            WebDriver driver;
+            while ((driver = queue.pollFirst()) != null) {
+                quietlyQuit(driver);
+            }
+        }
+        refiller = newRefiller();
+        closed = false;
+    }
+
+    /**
+     * Summarises hit/miss counts and reset times for the report.
+     *
+     * @return a one-line statistics summary
+     */
+    public String stats() {
+        long resetCount = resets.get();
+        double avgResetMs = resetCount == 0 ? 0 : resetNanos.get() / 1_000_000.0 / resetCount;
+        return String.format("hits=%d, misses=%d, resets=%d, avgResetMs=%.1f, discarded=%d",
+                hits.get(), misses.get(), resetCount, avgResetMs, discarded.get());
+    }
+
+    private static ExecutorService newRefiller() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Sessions are pooled under their backend's name, so aliases and case variants share one queue
+    private static String key(String browser) {
+        return DriverFactory.backend(browser).name();
+    }
+
+    private ConcurrentLinkedDeque<WebDriver> idleFor(String key) {
+        return idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    /**
+     * Launches sessions in the background until idle plus in-flight sessions reach the target size.
+     */
+    private void refill(String key) {
+        AtomicInteger inFlight = launching.computeIfAbsent(key, k -> new AtomicInteger());
+        while (!closed && idleFor(key).size() + inFlight.get() < targetSize) {
+            inFlight.incrementAndGet();
+            try {
+                refiller.execute(() -> {
+                    try {
+                        WebDriver driver = DriverFactory.createDriver(key);
+                        if (closed) {
+                            quietlyQuit(driver);
+                        } else {
+                            idleFor(key).offerLast(driver);
+                        }
+                    } catch (Exception e) {
+                        logger.warn("Background launch of " + key + " failed: " + e.getMessage());
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (Exception e) {
+                inFlight.decrementAndGet(); // Executor already shut down
+                return;
+            }
+        }
+    }
+
+    /**
+     * Brings a used session back to a blank state: extra tabs closed, storage and cookies cleared.
+     *
+     * @return true if the session is healthy and can be leased again
+     */
+    private boolean reset(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            String first = handles.get(0);
+            for (String handle : handles.subList(1, handles.size())) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(first);
+
+            // Storage is scoped to the current origin, so clear it before leaving the page
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception ignored) {
+                // Pages without script access (e.g. about:blank) have no storage to clear
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Resetting pooled session failed, discarding it: " + e.getMessage());
+            return false;
+        } finally {
+            resets.incrementAndGet();
+            resetNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        discarded.incrementAndGet();
+        quietlyQuit(driver);
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // The session is already gone
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package Drivers;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+
+import java.util.Arrays;
+
+/**
+ * LaunchProfile describes how browsers are started.
+ * DEFAULT keeps the original headed, maximised browser; LEAN is meant for CI agents and starts
+ * a headless browser with a fixed viewport and background services, extensions and sync turned off.
+ */
+public enum LaunchProfile {
+
+    DEFAULT,
+    LEAN;
+
+    // Fixed viewport used instead of maximising, so layouts match between agents
+    static final int VIEWPORT_WIDTH = 1920;
+    static final int VIEWPORT_HEIGHT = 1080;
+
+    /**
+     * Resolves a profile from its configuration name, falling back to DEFAULT.
+     *
+     * @param name The profile name from config.properties or a system property
+     * @return the matching LaunchProfile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static LaunchProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return DEFAULT;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown launch profile: " + name
+                    + ". Supported profiles: " + Arrays.toString(values()), e);
+        }
+    }
+
+    /**
+     * Checks whether the window should be maximised after launch.
+     *
+     * @return true for headed profiles
+     */
+    public boolean maximizeWindow() {
+        return this == DEFAULT;
+    }
+
+    /**
+     * Builds the ChromeOptions for this profile.
+     *
+     * @return options for ChromeDriver
+     */
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(NetworkMode.pageLoadStrategy());
+        if (this == LEAN) {
+            applyLeanChromium(options);
+        }
+        return options;
+    }
+
+    /**
+     * Builds the EdgeOptions for this profile.
+     *
+     * @return options for EdgeDriver
+     */
+    public EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        options.setPageLoadStrategy(NetworkMode.pageLoadStrategy());
+        if (this == LEAN) {
+            applyLeanChromium(options);
+        }
+        return options;
+    }
+
+    /**
+     * Builds the FirefoxOptions for this profile.
+     *
+     * @return options for FirefoxDriver
+     */
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(NetworkMode.pageLoadStrategy());
+        if (this == LEAN) {
+            options.addArguments("-headless", "--width=" + VIEWPORT_WIDTH, "--height=" + VIEWPORT_HEIGHT);
+
+            // Skip first-run pages, update checks and telemetry uploads
+            FirefoxProfile profile = new FirefoxProfile();
+            profile.setPreference("browser.startup.page", 0);
+            profile.setPreference("browser.shell.checkDefaultBrowser", false);
+            profile.setPreference("app.update.enabled", false);
+            profile.setPreference("extensions.update.enabled", false);
+            profile.setPreference("datareporting.policy.dataSubmissionEnabled", false);
+            profile.setPreference("toolkit.telemetry.enabled", false);
+            options.setProfile(profile);
+        }
+        return options;
+    }
+
+    /**
+     * Chrome and Edge share the Chromium switches.
+     */
+    private static void applyLeanChromium(ChromiumOptions<?> options) {
+        options.addArguments(
+                "--headless=new",
+                "--window-size=" + VIEWPORT_WIDTH + "," + VIEWPORT_HEIGHT,
+                "--disable-gpu",
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-background-timer-throttling",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-dev-shm-usage",
+                "--no-first-run",
+                "--no-default-browser-check",
+                "--no-sandbox");
+    }
+}
@@ -0,0 +1,306 @@
+package Drivers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * NetworkMode controls how much of each page the browser waits for and downloads.
+ * It sets the page-load strategy (normal, eager or none) and, on Chromium browsers, blocks
+ * chosen URL patterns and resource types through DevTools request interception.
+ * Blocked requests are counted per page and resource type. A request is attributed to the page
+ * named in its Referer header, or else to the last document its own session requested, so
+ * overlapping sessions and tabs do not share a "current page".
+ * <p>
+ * Bytes avoided are measured in the browser: the first document of each page in a run loads
+ * unblocked as a baseline, and measureBaseline() reads the Resource Timing transfer size of each
+ * resource it would have blocked. A blocked request then counts the baseline size of its URL;
+ * requests for URLs no baseline measured, e.g. cross-origin resources without a
+ * Timing-Allow-Origin header, are counted as unsized.
+ */
+public final class NetworkMode {
+
+    private static final Logger logger = LogManager.getLogger(NetworkMode.class);
+
+    // File extensions that identify each blockable resource type
+    private static final Map<String, Set<String>> TYPE_EXTENSIONS = Map.of(
+            "image", Set.of("png", "jpg", "jpeg", "gif", "webp", "svg", "ico", "bmp"),
+            "font", Set.of("woff", "woff2", "ttf", "otf", "eot"),
+            "media", Set.of("mp4", "webm", "ogg", "mp3", "wav"),
+            "stylesheet", Set.of("css"),
+            "script", Set.of("js"));
+
+    private static volatile PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+    private static volatile List<Pattern> blockedUrls = List.of();
+    private static volatile Set<String> blockedExtensions = Set.of();
+
+    // Reads the loaded document's URL and the transfer size of each resource, in one round trip;
+    // null while loading. Cache hits and opaque cross-origin entries report 0 and are skipped
+    private static final String RESOURCE_SIZES_SCRIPT =
+            "if (document.readyState !== 'complete') { return null; }"
+                    + " var p = window.performance, r = p && p.getEntriesByType ? p.getEntriesByType('resource') : [], sizes = {};"
+                    + " for (var i = 0; i < r.length; i++) { if (r[i].transferSize > 0) { sizes[r[i].name] = r[i].transferSize; } }"
+                    + " return { url: location.href, sizes: sizes };";
+
+    // Per page, then per blocked URL: requests blocked
+    private static final Map<String, Map<String, LongAdder>> avoided = new ConcurrentHashMap<>();
+
+    // Per page: whether its baseline load is done (measured or left); absent until its first document
+    private static final Map<String, Boolean> baselines = new ConcurrentHashMap<>();
+    // Baselines loading and not yet measured; measureBaseline() does nothing while there are none
+    private static final AtomicInteger pendingBaselines = new AtomicInteger();
+    // Transfer size of each blockable URL, from the baseline loads
+    private static final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    // A document a session requested, and whether it is its page's unblocked baseline
+    private record Document(String page, boolean baseline) {
+    }
+
+    private NetworkMode() {
+    }
+
+    /**
+     * Configures the mode for subsequently launched sessions.
+     *
+     * @param strategy      The page-load strategy: "normal", "eager" or "none"
+     * @param urlPatterns   Glob patterns of URLs to block, e.g. "*googletagmanager*"
+     * @param resourceTypes Resource types to block: image, font, media, stylesheet or script
+     */
+    public static void configure(String strategy, List<String> urlPatterns, Set<String> resourceTypes) {
+        PageLoadStrategy resolved = strategy == null || strategy.isBlank()
+                ? PageLoadStrategy.NORMAL
+                : PageLoadStrategy.fromString(strategy.trim().toLowerCase(Locale.ROOT));
+        if (resolved == null) {
+            throw new IllegalArgumentException("Unknown page-load strategy: " + strategy + ". Use normal, eager or none.");
+        }
+        pageLoadStrategy = resolved;
+        blockedUrls = urlPatterns.stream().map(NetworkMode::globToPattern).collect(Collectors.toList());
+        blockedExtensions = resourceTypes.stream()
+                .map(type -> {
+                    Set<String> extensions = TYPE_EXTENSIONS.get(type.trim().toLowerCase(Locale.ROOT));
+                    if (extensions == null) {
+                        throw new IllegalArgumentException("Unknown resource type: " + type
+                                + ". Supported types: " + new TreeMap<>(TYPE_EXTENSIONS).keySet());
+                    }
+                    return extensions;
+                })
+                .flatMap(Set::stream)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Returns the page-load strategy that launch options should use.
+     *
+     * @return the configured PageLoadStrategy
+     */
+    public static PageLoadStrategy pageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Installs request blocking on a new session when any blocking is configured.
+     * Only browsers that expose DevTools (Chrome, Edge) support it; others keep the page-load strategy only.
+     *
+     * @param driver The session to install blocking on
+     */
+    static void attach(WebDriver driver) {
+        if (blockedUrls.isEmpty() && blockedExtensions.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("Request blocking needs DevTools; " + driver.getClass().getSimpleName() + " will load every resource.");
+            return;
+        }
+        // Last document this session requested; interceptor callbacks can run on several threads
+        AtomicReference<Document> lastDocument = new AtomicReference<>(new Document("(initial)", false));
+        // The interceptor lives as long as the session's DevTools connection
+        new NetworkInterceptor(driver, (HttpRequest request) -> {
+            String url = request.getUri();
+            String accept = request.getHeader("Accept");
+            if (accept != null && accept.startsWith("text/html")) {
+                // A document request starts a new page; the first of each page is its baseline
+                String page = pageKey(url);
+                boolean baseline = baselines.putIfAbsent(page, Boolean.FALSE) == null;
+                if (baseline) {
+                    pendingBaselines.incrementAndGet();
+                }
+                Document left = lastDocument.getAndSet(new Document(page, baseline));
+                if (left.baseline()) {
+                    finishBaseline(left.page()); // Left before it was measured
+                }
+            } else {
+                String type = blockedType(url);
+                if (type != null) {
+                    String referer = request.getHeader("Referer");
+                    Document document = lastDocument.get();
+                    String page = referer == null || referer.isBlank() ? document.page() : pageKey(referer);
+                    if (document.baseline() && document.page().equals(page)) {
+                        return NetworkInterceptor.PROCEED_WITH_REQUEST;
+                    }
+                    avoided.computeIfAbsent(page, k -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(url, k -> new LongAdder()).increment();
+                    return new HttpResponse().setStatus(204);
+                }
+            }
+            return NetworkInterceptor.PROCEED_WITH_REQUEST;
+        });
+    }
+
+    /**
+     * Measures the resources blocking would avoid on the current document, if it is a page's
+     * unblocked baseline that has finished loading. Page objects call it after their waits; it
+     * costs no browser round trip while no baseline is pending.
+     *
+     * @param driver The page's driver
+     */
+    @SuppressWarnings("unchecked")
+    public static void measureBaseline(WebDriver driver) {
+        if (pendingBaselines.get() == 0 || !(driver instanceof JavascriptExecutor js)) {
+            return;
+        }
+        Map<String, Object> loaded;
+        try {
+            loaded = (Map<String, Object>) js.executeScript(RESOURCE_SIZES_SCRIPT);
+        } catch (WebDriverException e) {
+            return; // E.g. an alert is open or the document is being replaced; the next wait retries
+        }
+        if (loaded == null) {
+            return;
+        }
+        String page = pageKey((String) loaded.get("url"));
+        if (!Boolean.FALSE.equals(baselines.get(page))) {
+            return; // Not a pending baseline: blocked already, or measured
+        }
+        ((Map<String, Object>) loaded.get("sizes")).forEach((url, size) -> {
+            if (blockedType(url) != null) {
+                sizes.put(url, ((Number) size).longValue());
+            }
+        });
+        finishBaseline(page);
+        logger.info("Measured the unblocked baseline load of " + page);
+    }
+
+    /**
+     * Summarises the requests and bytes blocked per page.
+     *
+     * @return one entry per page with the requests blocked, their count per resource type, the
+     * bytes they took in the page's baseline load, and how many had no baseline size
+     */
+    public static String summary() {
+        Map<String, String> summary = new TreeMap<>();
+        avoided.forEach((page, byUrl) -> {
+            Map<String, Long> counts = new TreeMap<>();
+            long requests = 0;
+            long bytes = 0;
+            long unsized = 0;
+            for (Map.Entry<String, LongAdder> blocked : byUrl.entrySet()) {
+                long count = blocked.getValue().sum();
+                Long size = sizes.get(blocked.getKey());
+                requests += count;
+                counts.merge(blockedType(blocked.getKey()), count, Long::sum);
+                if (size == null) {
+                    unsized += count;
+                } else {
+                    bytes += count * size;
+                }
+            }
+            summary.put(page, "requests=" + requests + " " + counts + " bytes=" + bytes
+                    + (unsized > 0 ? " unsized=" + unsized : ""));
+        });
+        return "strategy=" + pageLoadStrategy + ", blocked=" + summary;
+    }
+
+    /**
+     * Returns why a URL is blocked: "url" for a URL pattern match, otherwise its resource type.
+     *
+     * @return the reason, or null if the URL is not blocked
+     */
+    static String blockedType(String url) {
+        for (Pattern pattern : blockedUrls) {
+            if (pattern.matcher(url).matches()) {
+                return "url";
+            }
+        }
+        URI uri = parse(url);
+        String path = uri == null ? null : uri.getPath();
+        if (path == null) {
+            return null;
+        }
+        int dot = path.lastIndexOf('.');
+        String extension = dot < 0 ? null : path.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (extension == null || !blockedExtensions.contains(extension)) {
+            return null;
+        }
+        for (Map.Entry<String, Set<String>> type : TYPE_EXTENSIONS.entrySet()) {
+            if (type.getValue().contains(extension)) {
+                return type.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Groups URLs by page: path plus the OpenCart "route" parameter, which identifies the storefront page.
+     */
+    static String pageKey(String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return url;
+        }
+        String key = uri.getHost() + uri.getPath();
+        String query = uri.getQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("route=")) {
+                    return key + "?" + param;
+                }
+            }
+        }
+        return key;
+    }
+
+    private static void finishBaseline(String page) {
+        if (baselines.replace(page, Boolean.FALSE, Boolean.TRUE)) {
+            pendingBaselines.decrementAndGet();
+        }
+    }
+
+    private static URI parse(String url) {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return null; // Not a well-formed URI, e.g. unescaped characters in the query
+        }
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.trim().split("\\*", -1)) {
+            if (regex.length() > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
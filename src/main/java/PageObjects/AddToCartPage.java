@@ -1,10 +1,16 @@
 package PageObjects;
 
+import Support.FormFill;
+import Support.PageBudget;
+import Support.PageProbe;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 
+import java.util.function.Function;
+
 public class AddToCartPage extends BasePage {
     @FindBy(xpath = "//div[@class='input-group btn-block']/input")
     WebElement lnkProductQuantity;
@@ -22,15 +28,20 @@ public class AddToCartPage extends BasePage {
     WebElement radioShippingMethod;
     @FindBy(xpath = "//input[@id='button-shipping']")
     WebElement btnShipping;
-    @FindBy(xpath = "//div[@class='alert alert-success alert-dismissible']")
-    WebElement applySuccessMsg;
-    @FindBy(xpath = "//div[@class='alert alert-danger alert-dismissible']")
-    WebElement availableMsg;
     @FindBy(xpath = "//a[normalize-space()='Continue Shopping']")
     WebElement lnkContinueShopping;
     @FindBy(xpath = "//a[@class='btn btn-primary']")
     WebElement btnCheckout;
 
+    // Result alerts, read in one round trip instead of a find and isDisplayed per alert
+    private static final PageProbe ALERTS = PageProbe.define()
+            .xpath("applySuccessMsg", "//div[@class='alert alert-success alert-dismissible']")
+            .xpath("availableMsg", "//div[@class='alert alert-danger alert-dismissible']");
+
+    // Cart rows plus the shipping and coupon forms; the cart is read per session, so TTFB is higher
+    private static final PageBudget BUDGET = PageBudget.forRoute("checkout/cart")
+            .ttfb(2500).domContentLoaded(3500).load(6000).resources(70).transferKb(1536);
+
     /**
      * Constructor for BasePage.
      * Initializes the WebDriver and the PageFactory.
@@ -41,58 +52,128 @@ public class AddToCartPage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Constructor for AddToCartPage that uses the WebDriver bound to the current thread.
+     */
+    public AddToCartPage() {
+        super();
+    }
+
+    /**
+     * The cart page is ready once the quantity field is visible.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return ExpectedConditions.visibilityOf(lnkProductQuantity);
+    }
+
+    /**
+     * The cart page's load budget.
+     */
+    @Override
+    protected PageBudget budget() {
+        return BUDGET;
+    }
+
     public void clickProductQuantity(String value) {
+        waitUntilReady();
         lnkProductQuantity.clear();
         lnkProductQuantity.sendKeys(value);
     }
 
     public void clickShippingTax() {
+        waitUntilReady();
         lnkShippingTaxBtn.click();
     }
 
     public void clickCountry(String country) {
+        waitFor("shippingForm", ExpectedConditions.visibilityOf(lnkCountry)); // The panel expands with an animation
         Select selectCountry = new Select(lnkCountry);
         selectCountry.selectByVisibleText(country);
     }
 
     public void clickState(String state) {
+        // Zones are loaded by AJAX after the country changes
+        waitFor("zoneOptions", d -> new Select(lnkState).getOptions().stream()
+                .anyMatch(option -> option.getText().trim().equals(state)));
         Select selectState = new Select(lnkState);
         selectState.selectByVisibleText(state);
     }
 
     public void clickPostcode(String postcode) {
+        waitUntilReady();
         lnkPostcode.sendKeys(postcode);
     }
 
+    /**
+     * Fills the shipping estimate form: country and postcode in one command, then the region
+     * once its options have been loaded for the chosen country.
+     *
+     * @param country  The country's visible text
+     * @param state    The region's visible text
+     * @param postcode The postcode
+     */
+    public void estimateShipping(String country, String state, String postcode) {
+        waitFor("shippingForm", ExpectedConditions.visibilityOf(lnkCountry)); // The panel expands with an animation
+        FormFill.on(driver).named("AddToCartPage.shippingEstimate")
+                .select(lnkCountry, country)
+                .set(lnkPostcode, postcode)
+                .fill();
+        // Zones are loaded by AJAX after the country change event
+        waitFor("zoneOptions", d -> new Select(lnkState).getOptions().stream()
+                .anyMatch(option -> option.getText().trim().equals(state)));
+        FormFill.on(driver).named("AddToCartPage.shippingZone")
+                .select(lnkState, state)
+                .fill();
+    }
+
     public void clickQuotes() {
+        waitUntilReady();
         btnQuote.click();
     }
 
     public void clickShippingMethod() {
+        waitFor("shippingMethods", ExpectedConditions.elementToBeClickable(radioShippingMethod)); // Quote modal is loaded by AJAX
         radioShippingMethod.click();
     }
 
     public void clickApplyShipping() {
+        waitUntilReady();
         btnShipping.click();
     }
 
     public boolean verifyApplySuccessMsg() {
-        try {
-            return applySuccessMsg.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return tryWaitFor("applySuccessMsg", d -> ALERTS.read(d).isVisible("applySuccessMsg"));
     }
 
+    /**
+     * Checks whether the cart warns that products are not available in the desired quantity.
+     * Applying shipping reloads the cart, which renders the stock warning together with the
+     * shipping success alert; so the answer is no as soon as the reloaded cart shows the success
+     * alert without the warning, instead of after the full timeout.
+     *
+     * @return true if the stock warning is shown
+     */
     public boolean verifyAvailableMsg(){
-        return availableMsg.isDisplayed();
+        return decide("availableMsg", d -> {
+            PageProbe.Snapshot alerts = ALERTS.read(d);
+            if (alerts.isVisible("availableMsg")) {
+                return true;
+            }
+            if (alerts.isComplete() && alerts.isVisible("applySuccessMsg")) {
+                return false; // The reloaded cart has no stock warning
+            }
+            return null;
+        });
     }
 
     public void clickContinueShipping(){
+        waitUntilReady();
         lnkContinueShopping.click();
     }
 
     public void clickCheckout(){
+        waitUntilReady();
         btnCheckout.click();
     }
 }
@@ -1,26 +1,152 @@
 package PageObjects;
 
+import Drivers.DriverManager;
+import Drivers.NetworkMode;
+import Support.CachingElementDecorator;
+import Support.CommandTimings;
+import Support.PageBudget;
+import Support.PageTimings;
+import Support.Wait;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.PageFactory;
 
+import java.util.function.Function;
+
 /**
  * BasePage is a base class for all page objects.
  * It initializes WebDriver and allows for the use of PageFactory
  * to manage web elements on the page.
+ * <p>
+ * A page that declares a budget() for its route records the load of its document (see PageTimings)
+ * when it is created and after its waits, and checks it against that budget.
  */
 public class BasePage {
 
+    private static final PageBudget NO_BUDGET = PageBudget.define();
+
     // Instance of WebDriver for interacting with the browser
     WebDriver driver;
 
+    // Whether this page's document load has been recorded; until then each wait tries again
+    private boolean timed;
+
+    // Whether readyCondition() has been met; actions wait for it once, before their first element use
+    private boolean ready;
+
     /**
      * Constructor for BasePage.
-     * Initializes the WebDriver and the PageFactory.
+     * Initializes the WebDriver and the @FindBy fields. Pages under PageObjects are bound by
+     * classes generated at compile time; other subclasses fall back to PageFactory. Either way,
+     * elements are cached once found and looked up again only after they go stale (see ElementCache).
      *
      * @param driver WebDriver instance to be used for page interactions
      */
     public BasePage(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalStateException("No WebDriver session is bound to thread " + Thread.currentThread().getName());
+        }
         this.driver = driver; // Assigning the passed WebDriver instance to the class variable
-        PageFactory.initElements(driver, this); // Initializing elements annotated with @FindBy in the page class
+        CommandTimings.enterPage(getClass().getSimpleName()); // The lookups below are this page's commands
+        if (!PageBindings.bind(this, driver)) { // Binding the @FindBy fields without reflection
+            PageFactory.initElements(new CachingElementDecorator(driver), this);
+        }
+        recordLoad(); // The document may already be loaded, e.g. right after driver.get()
+    }
+
+    /**
+     * Constructor for BasePage that uses the WebDriver bound to the current thread.
+     */
+    public BasePage() {
+        this(DriverManager.getDriver());
+    }
+
+    /**
+     * Waits until the page's readiness condition is met. Actions that use an element without a
+     * wait of their own call this first, so with the implicit wait turned off they do not act on a
+     * page that is still loading. Once the condition has been met this returns at once.
+     */
+    public void waitUntilReady() {
+        CommandTimings.enterPage(getClass().getSimpleName()); // An action of this page starts here
+        if (!ready) {
+            waitFor("ready", readyCondition());
+            ready = true;
+        }
+    }
+
+    /**
+     * The condition that tells this page has finished loading. Pages override this
+     * with the element their actions depend on; the default waits for document.readyState.
+     *
+     * @return the readiness condition
+     */
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState"));
+    }
+
+    /**
+     * The most this page's load may cost. Pages override this with a budget for their route;
+     * the default has no route, so the page records no loads.
+     *
+     * @return the page's budget
+     */
+    protected PageBudget budget() {
+        return NO_BUDGET;
+    }
+
+    /**
+     * Records this page's document load once it has finished and checks it against the page's budget,
+     * and measures it if it is an unblocked baseline for NetworkMode.
+     */
+    void recordLoad() {
+        if (!timed) {
+            timed = PageTimings.capture(driver, getClass().getSimpleName(), budget());
+        }
+        NetworkMode.measureBaseline(driver);
+    }
+
+    /**
+     * Waits for a named condition on this page, failing with a TimeoutException if it is not met.
+     *
+     * @param name      The condition name, recorded as "PageClass.name"
+     * @param condition The condition to wait for
+     * @param <T>       The condition's result type
+     * @return the condition's result
+     */
+    protected <T> T waitFor(String name, Function<? super WebDriver, T> condition) {
+        CommandTimings.enterPage(getClass().getSimpleName());
+        T result = Wait.on(driver).named(getClass().getSimpleName() + "." + name).until(condition);
+        recordLoad();
+        return result;
+    }
+
+    /**
+     * Waits for a named condition on this page, returning false if it is not met in time.
+     *
+     * @param name      The condition name, recorded as "PageClass.name"
+     * @param condition The condition to wait for
+     * @return true if the condition was met within the timeout
+     */
+    protected boolean tryWaitFor(String name, Function<? super WebDriver, ?> condition) {
+        CommandTimings.enterPage(getClass().getSimpleName());
+        boolean met = Wait.on(driver).named(getClass().getSimpleName() + "." + name).tryUntil(condition);
+        recordLoad();
+        return met;
+    }
+
+    /**
+     * Waits for a named check to be decided either way. Use it for absence checks: the decision
+     * returns FALSE as soon as the page shows why the expected state will not come (an error alert,
+     * a different page), so a negative result does not cost the full timeout.
+     *
+     * @param name     The check name, recorded as "PageClass.name"
+     * @param decision Returns TRUE or FALSE once the outcome is known, null until then
+     * @return the decision, or false if nothing was decided within the timeout
+     */
+    protected boolean decide(String name, Function<? super WebDriver, Boolean> decision) {
+        CommandTimings.enterPage(getClass().getSimpleName());
+        boolean decided = Wait.on(driver).named(getClass().getSimpleName() + "." + name).decide(decision);
+        recordLoad();
+        return decided;
     }
 }
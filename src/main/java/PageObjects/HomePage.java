@@ -1,8 +1,12 @@
 package PageObjects;
 
+import Support.PageBudget;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.function.Function;
 
 /**
  * HomePage represents the homepage of the application.
@@ -25,15 +29,43 @@ public class HomePage extends BasePage {
     @FindBy(xpath = "//button[@class='btn btn-default btn-lg']")
     WebElement lnkEnter;
 
+    // Slideshow and featured products make the home page the heaviest load
+    private static final PageBudget BUDGET = PageBudget.forRoute("common/home")
+            .ttfb(1500).domContentLoaded(4000).load(8000).resources(120).transferKb(4096);
+
     // WebDriver instance inherited from BasePage
     public HomePage(WebDriver driver) {
         super(driver); // Initialize the BasePage with the provided WebDriver instance
     }
 
+    /**
+     * Constructor for HomePage that uses the WebDriver bound to the current thread.
+     */
+    public HomePage() {
+        super();
+    }
+
+    /**
+     * The home page is ready once the search box is visible.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return ExpectedConditions.visibilityOf(lnkSearch);
+    }
+
+    /**
+     * The home page's load budget.
+     */
+    @Override
+    protected PageBudget budget() {
+        return BUDGET;
+    }
+
     /**
      * Clicks on the "My Account" link.
      */
     public void clickMyAccount() {
+        waitUntilReady();
         lnkMyAccount.click(); // Perform click action on "My Account"
     }
 
@@ -41,6 +73,7 @@ public class HomePage extends BasePage {
      * Clicks on the "Register" link.
      */
     public void clickRegister() {
+        waitFor("registerLink", ExpectedConditions.elementToBeClickable(lnkRegister)); // Wait for the dropdown to open
         lnkRegister.click(); // Perform click action on "Register"
     }
 
@@ -48,14 +81,17 @@ public class HomePage extends BasePage {
      * Clicks on the "Login" link.
      */
     public void clickLogin() {
+        waitFor("loginLink", ExpectedConditions.elementToBeClickable(lnkLogin)); // Wait for the dropdown to open
         lnkLogin.click(); // Perform click action on "Login"
     }
 
     public void sendSearch(String value) {
+        waitUntilReady();
         lnkSearch.sendKeys(value);
     }
 
     public void clickEnter() {
+        waitUntilReady();
         lnkEnter.click();
     }
 }
@@ -1,8 +1,14 @@
 package PageObjects;
 
+import Support.FormFill;
+import Support.PageBudget;
+import Support.PageProbe;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.function.Function;
 
 /**
  * LoginPage represents the login page of the application.
@@ -23,6 +29,10 @@ public class LoginPage extends BasePage {
     @FindBy(xpath = "//input[@value='Login']")
     WebElement btnLogin;
 
+    // A single form with few images; the tightest budget
+    private static final PageBudget BUDGET = PageBudget.forRoute("account/login")
+            .ttfb(1500).domContentLoaded(3000).load(5000).resources(60).transferKb(1024);
+
     /**
      * Constructor for LoginPage.
      * Initializes the page with the provided WebDriver instance.
@@ -33,12 +43,36 @@ public class LoginPage extends BasePage {
         super(driver); // Initialize the BasePage with the provided WebDriver instance
     }
 
+    /**
+     * Constructor for LoginPage that uses the WebDriver bound to the current thread.
+     */
+    public LoginPage() {
+        super();
+    }
+
+    /**
+     * The login page is ready once the email field is visible.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return ExpectedConditions.visibilityOf(txtEmail);
+    }
+
+    /**
+     * The login page's load budget.
+     */
+    @Override
+    protected PageBudget budget() {
+        return BUDGET;
+    }
+
     /**
      * Enters the specified email into the email input field.
      *
      * @param email The email address to be entered
      */
     public void setEmail(String email) {
+        waitUntilReady();
         txtEmail.sendKeys(email); // Type the email address into the email input field
     }
 
@@ -48,13 +82,32 @@ public class LoginPage extends BasePage {
      * @param pwd The password to be entered
      */
     public void setPwd(String pwd) {
+        waitUntilReady();
         txtPwd.sendKeys(pwd); // Type the password into the password input field
     }
 
     /**
-     * Clicks the login button to submit the login form.
+     * Clicks the login button to submit the login form. The current document is marked first,
+     * so checks that follow can tell the login page being left from the page the submit loads.
      */
     public void clickLogin() {
+        waitUntilReady();
+        PageProbe.markDocument(driver);
         btnLogin.click(); // Perform click action on the login button
     }
+
+    /**
+     * Fills email and password in one command and submits the login form.
+     *
+     * @param email The email address
+     * @param pwd   The password
+     */
+    public void login(String email, String pwd) {
+        waitUntilReady();
+        FormFill.on(driver).named("LoginPage.login")
+                .set(txtEmail, email)
+                .set(txtPwd, pwd)
+                .fill();
+        clickLogin();
+    }
 }
@@ -1,9 +1,12 @@
 package PageObjects;
 
+import Support.PageProbe;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.util.function.Function;
+
 /**
  * MyAccountPage represents the user's account page in the application.
  * It contains elements and actions related to the user's account,
@@ -11,9 +14,14 @@ import org.openqa.selenium.support.FindBy;
  */
 public class MyAccountPage extends BasePage {
 
-    // Locate the heading message indicating the My Account section
-    @FindBy(xpath = "//h2[text()='My Account']")
-    WebElement msgHeading;
+    // Locate the heading message indicating the My Account section, and the login warning that
+    // means it will not appear; probed together in a single round trip
+    private static final PageProbe PROBE = PageProbe.define()
+            .xpath("heading", "//h2[text()='My Account']")
+            .xpath("loginWarning", "//div[contains(@class,'alert-danger')]");
+
+    // OpenCart route of the account page
+    private static final String ACCOUNT_ROUTE = "route=account/account";
 
     // Locate the Logout link on the My Account page
     @FindBy(xpath = "//div[@class='list-group']//a[text()='Logout']")
@@ -29,23 +37,51 @@ public class MyAccountPage extends BasePage {
         super(driver); // Initialize the BasePage with the provided WebDriver instance
     }
 
+    /**
+     * Constructor for MyAccountPage that uses the WebDriver bound to the current thread.
+     */
+    public MyAccountPage() {
+        super();
+    }
+
+    /**
+     * The My Account page is ready once the heading is visible.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return d -> PROBE.read(d).isVisible("heading");
+    }
+
     /**
      * Checks if the My Account page is displayed by verifying the heading.
+     * A negative answer is given as soon as it is certain instead of after the full timeout:
+     * when the login warning is shown, or when a new page other than My Account has finished
+     * loading (e.g. the redirect to the login page). A page marked before submitting the login
+     * form (see LoginPage.clickLogin) is still the old page and does not count.
      *
      * @return true if the My Account heading is displayed, false otherwise
      */
     public boolean isMyAccountPageExists() {
-        try {
-            return msgHeading.isDisplayed(); // Return true if the heading is displayed
-        } catch (Exception e) {
-            return false; // Return false if an exception occurs (element not found)
-        }
+        return decide("loggedIn", d -> {
+            PageProbe.Snapshot page = PROBE.read(d);
+            if (page.isVisible("heading")) {
+                return true;
+            }
+            if (page.isVisible("loginWarning")) {
+                return false; // Login rejected
+            }
+            if (page.isComplete() && !page.isMarked() && !page.url().contains(ACCOUNT_ROUTE)) {
+                return false; // Landed on a different page
+            }
+            return null; // Still on the submitted page or loading
+        });
     }
 
     /**
      * Clicks the Logout link to log the user out of their account.
      */
     public void clickLogout() {
+        waitUntilReady();
         lnkLogout.click(); // Perform click action on the Logout link
     }
 }
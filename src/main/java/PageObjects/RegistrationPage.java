@@ -1,8 +1,12 @@
 package PageObjects;
 
+import Support.FormFill;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.function.Function;
 
 /**
  * RegistrationPage represents the user registration page of the application.
@@ -61,12 +65,28 @@ public class RegistrationPage extends BasePage {
         super(driver); // Initialize the BasePage with the provided WebDriver instance
     }
 
+    /**
+     * Constructor for RegistrationPage that uses the WebDriver bound to the current thread.
+     */
+    public RegistrationPage() {
+        super();
+    }
+
+    /**
+     * The registration page is ready once the first name field is visible.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return ExpectedConditions.visibilityOf(txtFirstName);
+    }
+
     /**
      * Enters the specified first name into the first name input field.
      *
      * @param fname The first name to be entered
      */
     public void setTxtFirstName(String fname) {
+        waitUntilReady();
         txtFirstName.sendKeys(fname); // Type the first name into the input field
     }
 
@@ -76,6 +96,7 @@ public class RegistrationPage extends BasePage {
      * @param lname The last name to be entered
      */
     public void setTxtLastName(String lname) {
+        waitUntilReady();
         txtLastName.sendKeys(lname); // Type the last name into the input field
     }
 
@@ -85,6 +106,7 @@ public class RegistrationPage extends BasePage {
      * @param email The email address to be entered
      */
     public void setEmail(String email) {
+        waitUntilReady();
         txtEmail.sendKeys(email); // Type the email address into the input field
     }
 
@@ -94,6 +116,7 @@ public class RegistrationPage extends BasePage {
      * @param tel The telephone number to be entered
      */
     public void setTelephone(String tel) {
+        waitUntilReady();
         txtTelephone.sendKeys(tel); // Type the telephone number into the input field
     }
 
@@ -103,6 +126,7 @@ public class RegistrationPage extends BasePage {
      * @param pwd The password to be entered
      */
     public void setTxtPassword(String pwd) {
+        waitUntilReady();
         txtPassword.sendKeys(pwd); // Type the password into the input field
     }
 
@@ -112,6 +136,7 @@ public class RegistrationPage extends BasePage {
      * @param pwd The password to be confirmed
      */
     public void setConfirmPassword(String pwd) {
+        waitUntilReady();
         txtConfirmPassword.sendKeys(pwd); // Type the confirm password into the input field
     }
 
@@ -119,6 +144,7 @@ public class RegistrationPage extends BasePage {
      * Clicks the "Yes" radio button to accept marketing communications.
      */
     public void setRadioYes() {
+        waitUntilReady();
         radioYes.click(); // Perform click action on the "Yes" radio button
     }
 
@@ -126,13 +152,40 @@ public class RegistrationPage extends BasePage {
      * Clicks the checkbox to agree to the terms and conditions.
      */
     public void setChkPolicy() {
+        waitUntilReady();
         chkPolicy.click(); // Perform click action on the checkbox
     }
 
+    /**
+     * Fills the whole registration form in one command, opts in to the newsletter,
+     * agrees to the privacy policy and submits the form.
+     *
+     * @param fname The first name
+     * @param lname The last name
+     * @param email The email address
+     * @param tel   The telephone number
+     * @param pwd   The password, also entered as the confirmation
+     */
+    public void register(String fname, String lname, String email, String tel, String pwd) {
+        waitUntilReady();
+        FormFill.on(driver).named("RegistrationPage.register")
+                .set(txtFirstName, fname)
+                .set(txtLastName, lname)
+                .set(txtEmail, email)
+                .set(txtTelephone, tel)
+                .set(txtPassword, pwd)
+                .set(txtConfirmPassword, pwd)
+                .check(radioYes)
+                .check(chkPolicy)
+                .fill();
+        setBtnContinue();
+    }
+
     /**
      * Submits the registration form by clicking the Continue button.
      */
     public void setBtnContinue() {
+        waitUntilReady();
         btnContinue.submit(); // Submit the form using the Continue button
     }
 
@@ -143,6 +196,7 @@ public class RegistrationPage extends BasePage {
      */
     public String getConfirmationMsg() {
         try {
+            waitFor("confirmation", ExpectedConditions.visibilityOf(msgConfirmation));
             return msgConfirmation.getText(); // Return the confirmation message text
         } catch (Exception e) {
             return e.getMessage(); // Return the exception message if an error occurs
@@ -1,18 +1,32 @@
 package PageObjects;
 
+import Support.PageBudget;
+import Support.PageProbe;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.function.Function;
 
 public class SearchPage extends BasePage {
-    @FindBy(xpath = "(//div[@class='product-layout product-grid col-lg-3 col-md-3 col-sm-6 col-xs-12'])[1]")
-    WebElement macValue;
     @FindBy(xpath = "//span[normalize-space()='Add to Cart']")
     WebElement lnkAddToCart;
     @FindBy(xpath = "//span[normalize-space()='Shopping Cart']")
     WebElement lnkShoppingCart;
-    @FindBy(xpath = "//div[@class='alert alert-success alert-dismissible']")
-    WebElement successMsg;
+
+    // Either a product tile or the "no product" message means the results have been rendered.
+    // The probe reads these together with the first product and the alert in one round trip.
+    private static final PageProbe PROBE = PageProbe.define()
+            .xpath("results", "//div[contains(@class,'product-layout')]"
+                    + " | //p[contains(normalize-space(),'There is no product that matches')]")
+            .xpath("firstProduct", "(//div[@class='product-layout product-grid col-lg-3 col-md-3 col-sm-6 col-xs-12'])[1]")
+            .xpath("successMsg", "//div[@class='alert alert-success alert-dismissible']");
+
+    // Results are rendered server-side, with one thumbnail per product
+    private static final PageBudget BUDGET = PageBudget.forRoute("product/search")
+            .ttfb(2500).domContentLoaded(4000).load(7000).resources(100).transferKb(3072);
 
     /**
      * Constructor for BasePage.
@@ -24,27 +38,61 @@ public class SearchPage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Constructor for SearchPage that uses the WebDriver bound to the current thread.
+     */
+    public SearchPage() {
+        super();
+    }
+
+    /**
+     * The search results page is ready once either the product grid or the "no product" message is shown.
+     */
+    @Override
+    protected Function<? super WebDriver, ?> readyCondition() {
+        return d -> PROBE.read(d).isPresent("results");
+    }
+
+    /**
+     * The search results page's load budget.
+     */
+    @Override
+    protected PageBudget budget() {
+        return BUDGET;
+    }
+
+    /**
+     * Waits until the search results have been rendered.
+     */
+    public void waitForResults() {
+        waitFor("results", readyCondition());
+    }
+
     public boolean isProductExists() {
+        // The read that sees the results rendered also tells whether the first product is shown
         try {
-            return macValue.isDisplayed();
-        } catch (Exception e) {
+            PageProbe.Snapshot results = waitFor("results", d -> {
+                PageProbe.Snapshot snapshot = PROBE.read(d);
+                return snapshot.isPresent("results") ? snapshot : null;
+            });
+            return results.isVisible("firstProduct");
+        } catch (TimeoutException e) {
             return false;
         }
     }
 
     public void clickAddToCart() {
+        waitUntilReady();
         lnkAddToCart.click();
     }
 
     public boolean verifySuccessMsg(){
-        try{
-            return successMsg.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        // The alert is added by an AJAX call after "Add to Cart" is clicked
+        return tryWaitFor("successMsg", d -> PROBE.read(d).isVisible("successMsg"));
     }
 
     public void clickShoppingCart(){
+        waitFor("shoppingCartLink", ExpectedConditions.elementToBeClickable(lnkShoppingCart));
         lnkShoppingCart.click();
     }
 }
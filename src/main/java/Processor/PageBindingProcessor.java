@@ -0,0 +1,247 @@
+package Processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * PageBindingProcessor turns the @FindBy fields of the page objects under PageObjects into plain
+ * binding classes at compile time, so constructing a page object does no reflective field scan and
+ * creates no dynamic proxies.
+ * <p>
+ * For each page class it generates "PageClassBindings", which assigns every @FindBy field a lazily
+ * resolved, cached element (Support.ElementCache), and one "PageBindings" class that BasePage calls
+ * to bind a page by its exact class. Locators are checked during the build: a field that is private,
+ * final, static or not a WebElement, a @FindBy without exactly one locator, or an XPath that does
+ * not parse fails the compilation.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class PageBindingProcessor extends AbstractProcessor {
+
+    static final String PAGE_PACKAGE = "PageObjects";
+    static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    // @FindBy attribute name -> org.openqa.selenium.By factory method
+    private static final Map<String, String> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("id", "id");
+        STRATEGIES.put("name", "name");
+        STRATEGIES.put("className", "className");
+        STRATEGIES.put("css", "cssSelector");
+        STRATEGIES.put("tagName", "tagName");
+        STRATEGIES.put("linkText", "linkText");
+        STRATEGIES.put("partialLinkText", "partialLinkText");
+        STRATEGIES.put("xpath", "xpath");
+    }
+
+    // Page class simple name -> its bound fields, collected over all rounds
+    private final Map<String, List<Binding>> pages = new TreeMap<>();
+    private boolean registryWritten;
+
+    /**
+     * One @FindBy field and the By expression that locates it.
+     */
+    record Binding(String field, String by) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Messager messager = processingEnv.getMessager();
+        Map<TypeElement, List<Binding>> found = new LinkedHashMap<>();
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement page = (TypeElement) element.getEnclosingElement();
+                if (!isPageObject(page)) {
+                    continue; // Only page objects are generated; anything else keeps PageFactory
+                }
+                Binding binding = bind((VariableElement) element, page, messager);
+                if (binding != null) {
+                    found.computeIfAbsent(page, k -> new ArrayList<>()).add(binding);
+                }
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<Binding>> entry : found.entrySet()) {
+            String page = entry.getKey().getSimpleName().toString();
+            pages.put(page, entry.getValue());
+            write(page + "Bindings", bindingsSource(page, entry.getValue()), entry.getKey());
+        }
+
+        // Written one round after the last bindings, so javac still compiles it normally
+        if (found.isEmpty() && !registryWritten && !pages.isEmpty()) {
+            write("PageBindings", registrySource(pages.keySet()));
+            registryWritten = true;
+        }
+        return false;
+    }
+
+    private boolean isPageObject(TypeElement type) {
+        return type.getEnclosingElement().getKind() == ElementKind.PACKAGE
+                && processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().contentEquals(PAGE_PACKAGE);
+    }
+
+    /**
+     * Checks one @FindBy field and returns its binding, or reports an error and returns null.
+     */
+    private Binding bind(VariableElement field, TypeElement page, Messager messager) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy field must be a non-private, non-final instance field to be bound", field);
+            return null;
+        }
+        TypeMirror type = field.asType();
+        if (type.getKind() != TypeKind.DECLARED
+                || !((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(WEB_ELEMENT)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy field must be a WebElement; declare lists with a PageProbe or find them at runtime", field);
+            return null;
+        }
+
+        AnnotationMirror findBy = field.getAnnotationMirrors().stream()
+                .filter(m -> ((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().contentEquals(FIND_BY))
+                .findFirst().orElseThrow();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+                : findBy.getElementValues().entrySet()) {
+            values.put(e.getKey().getSimpleName().toString(), String.valueOf(e.getValue().getValue()));
+        }
+
+        List<String> used = new ArrayList<>();
+        for (String attribute : STRATEGIES.keySet()) {
+            if (values.containsKey(attribute)) {
+                used.add(attribute);
+            }
+        }
+        if (values.containsKey("how") || values.containsKey("using")) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy(how, using) is not supported by generated bindings; use a named attribute such as xpath", field);
+            return null;
+        }
+        if (used.size() != 1) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy must set exactly one locator, found " + (used.isEmpty() ? "none" : used), field);
+            return null;
+        }
+
+        String strategy = used.get(0);
+        String locator = values.get(strategy);
+        if (locator.isBlank()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@FindBy " + strategy + " locator is empty", field);
+            return null;
+        }
+        if (strategy.equals("xpath")) {
+            try {
+                XPathFactory.newInstance().newXPath().compile(locator);
+            } catch (XPathExpressionException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Invalid XPath in @FindBy: " + locator, field);
+                return null;
+            }
+        }
+        return new Binding(field.getSimpleName().toString(), "By." + STRATEGIES.get(strategy) + "(" + literal(locator) + ")");
+    }
+
+    private String bindingsSource(String page, List<Binding> bindings) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(PAGE_PACKAGE).append(";\n\n")
+                .append("import Support.ElementCache;\n")
+                .append("import org.openqa.selenium.By;\n")
+                .append("import org.openqa.selenium.WebDriver;\n\n")
+                .append("/**\n * Binds the @FindBy fields of ").append(page)
+                .append(". Generated by Processor.PageBindingProcessor; do not edit.\n */\n")
+                .append("final class ").append(page).append("Bindings {\n\n");
+        for (Binding binding : bindings) {
+            out.append("    private static final By ").append(constant(binding.field()))
+                    .append(" = ").append(binding.by()).append(";\n");
+        }
+        out.append("\n    private ").append(page).append("Bindings() {\n    }\n\n")
+                .append("    static void bind(").append(page).append(" page, WebDriver driver) {\n")
+                .append("        ElementCache cache = new ElementCache();\n");
+        for (Binding binding : bindings) {
+            out.append("        page.").append(binding.field()).append(" = cache.element(driver, ")
+                    .append(constant(binding.field())).append(", \"").append(page).append('.')
+                    .append(binding.field()).append("\");\n");
+        }
+        out.append("    }\n}\n");
+        return out.toString();
+    }
+
+    private String registrySource(Set<String> pageNames) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(PAGE_PACKAGE).append(";\n\n")
+                .append("import org.openqa.selenium.WebDriver;\n\n")
+                .append("/**\n * Binds a page object's @FindBy fields without reflection.")
+                .append(" Generated by Processor.PageBindingProcessor; do not edit.\n */\n")
+                .append("final class PageBindings {\n\n")
+                .append("    private PageBindings() {\n    }\n\n")
+                .append("    /**\n     * Binds the page's fields if bindings were generated for its exact class.\n")
+                .append("     *\n     * @return false if the page has to be initialised with PageFactory instead\n     */\n")
+                .append("    static boolean bind(BasePage page, WebDriver driver) {\n")
+                .append("        Class<?> type = page.getClass();\n");
+        for (String page : pageNames) {
+            out.append("        if (type == ").append(page).append(".class) {\n")
+                    .append("            ").append(page).append("Bindings.bind((").append(page).append(") page, driver);\n")
+                    .append("            return true;\n        }\n");
+        }
+        out.append("        return false;\n    }\n}\n");
+        return out.toString();
+    }
+
+    private void write(String simpleName, String source, Element... origins) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(PAGE_PACKAGE + "." + simpleName, origins).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + simpleName + ": " + e.getMessage());
+        }
+    }
+
+    private static String constant(String field) {
+        return field.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    private static String literal(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
@@ -0,0 +1,38 @@
+package Support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+/**
+ * CachingElementDecorator is a PageFactory field decorator whose elements remember what they found,
+ * instead of sending a findElement round trip on every access.
+ * <p>
+ * Page objects under PageObjects get the same elements from bindings generated at compile time
+ * (see Processor.PageBindingProcessor); this decorator is the runtime fallback for page classes
+ * the processor did not see. Cached elements are dropped when one of them raises a
+ * StaleElementReferenceException, which WebDriver does after a navigation and for nodes a
+ * re-render replaced, so detection costs no extra round trips. See ElementCache.
+ */
+public class CachingElementDecorator extends DefaultFieldDecorator {
+
+    // The cached elements of this page object
+    private final ElementCache cache = new ElementCache();
+
+    /**
+     * Creates a decorator for one page object.
+     *
+     * @param driver WebDriver the page object's elements are located with
+     */
+    public CachingElementDecorator(WebDriver driver) {
+        super(new DefaultElementLocatorFactory(driver));
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        // Lists keep the default behaviour
+        return cache.element(locator::findElement, locator.toString());
+    }
+}
@@ -0,0 +1,230 @@
+package Support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandTimings measures every WebDriver command through Selenium's EventFiringDecorator and
+ * records its latency in a LatencyHistogram keyed by command (e.g. "WebElement.click"), the page
+ * object class that issued it and the element's locator, so a slow test can be traced to the
+ * command and element that cost the time.
+ * <p>
+ * The page is the page object that last started an action on the thread (see enterPage()), or "-"
+ * after the driver navigates with get(), e.g. from tests or support code. Elements are mapped to
+ * the locator they were found with. Both are kept per thread, because a driver and its elements
+ * are used by one test thread at a time, so recording a command takes no lock and no stack walk.
+ */
+public final class CommandTimings implements WebDriverListener {
+
+    private static final CommandTimings LISTENER = new CommandTimings();
+
+    /**
+     * One histogram key.
+     *
+     * @param command the interface and method, e.g. "WebDriver.get"
+     * @param page    the page object class, or "-"
+     * @param locator the element's locator, or "-"
+     */
+    public record Key(String command, String page, String locator) {
+    }
+
+    private static final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Locator each element on this thread was found with, by identity; cleared when the page is
+    // replaced or the driver quits, since its elements are stale from then on
+    private static final ThreadLocal<Map<WebElement, String>> locators = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    // Page object that last started an action on this thread
+    private static final ThreadLocal<String> page = ThreadLocal.withInitial(() -> "-");
+
+    // Start times of the commands in progress on this thread; calls can nest through the decorator
+    private static final ThreadLocal<Deque<long[]>> started = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Commands after which the thread's elements belong to a page that is gone
+    private static final Set<String> PAGE_CHANGES = Set.of("get", "quit", "close", "to", "back", "forward", "refresh");
+
+    private CommandTimings() {
+    }
+
+    /**
+     * Wraps a driver so every command it, its elements and its navigation/options objects run is timed.
+     *
+     * @param driver the driver to wrap
+     * @return the instrumented driver
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        return new EventFiringDecorator<>(LISTENER).decorate(driver);
+    }
+
+    /**
+     * Attributes the thread's following commands to a page object. BasePage calls this when a
+     * page is created and when one of its actions or waits starts.
+     *
+     * @param name the page object class, e.g. "LoginPage"
+     */
+    public static void enterPage(String name) {
+        page.set(name);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (target instanceof WebDriver && method.getName().equals("get")) {
+            page.remove(); // Navigation by URL comes from tests or support code, not a page action
+        }
+        started.get().push(new long[]{System.nanoTime()});
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        Deque<long[]> stack = started.get();
+        if (stack.isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - stack.pop()[0];
+        Map<WebElement, String> found = locators.get();
+        String locator = locator(found, target, method, args);
+        if (result instanceof WebElement element && locator != null) {
+            found.put(original(element), locator);
+        } else if (result instanceof List<?> list && locator != null) {
+            for (Object item : list) {
+                if (item instanceof WebElement element) {
+                    found.put(original(element), locator);
+                }
+            }
+        }
+        histograms.computeIfAbsent(new Key(command(target, method), page.get(), locator == null ? "-" : locator),
+                k -> new LatencyHistogram()).record(nanos);
+        if (!(target instanceof WebElement) && PAGE_CHANGES.contains(method.getName())) {
+            found.clear();
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // Failed commands are timed too, e.g. a findElement that gives up after the implicit wait
+        afterAnyCall(target, method, args, null);
+    }
+
+    private static String command(Object target, Method method) {
+        String type = target instanceof WebElement ? "WebElement"
+                : target instanceof WebDriver ? "WebDriver"
+                : method.getDeclaringClass().getSimpleName();
+        return type + "." + method.getName();
+    }
+
+    // Results reach the listener decorated, while later calls name the element they wrap as target
+    private static WebElement original(WebElement element) {
+        return element instanceof WrapsElement wrapper ? wrapper.getWrappedElement() : element;
+    }
+
+    private static String locator(Map<WebElement, String> found, Object target, Method method, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By by && method.getName().startsWith("findElement")) {
+            String parent = target instanceof WebElement element ? found.get(element) : null;
+            return parent == null ? by.toString() : parent + " >> " + by;
+        }
+        return target instanceof WebElement element ? found.get(element) : null;
+    }
+
+    /**
+     * Summarises latencies per command across all pages and locators.
+     *
+     * @return one entry per command with count, p50, p95, p99 and max in milliseconds
+     */
+    public static String summary() {
+        Map<String, LatencyHistogram> byCommand = new TreeMap<>();
+        histograms.forEach((key, histogram) ->
+                byCommand.computeIfAbsent(key.command(), k -> new LatencyHistogram()).add(histogram));
+        Map<String, String> summary = new LinkedHashMap<>();
+        byCommand.forEach((command, h) -> summary.put(command, describe(h)));
+        return summary.toString();
+    }
+
+    /**
+     * Returns one percentile per command across all pages and locators, e.g. for comparing runs.
+     *
+     * @param percentile the percentile, 0 to 100
+     * @return the duration in milliseconds per command, sorted by command
+     */
+    public static Map<String, Double> percentiles(double percentile) {
+        Map<String, LatencyHistogram> byCommand = new TreeMap<>();
+        histograms.forEach((key, histogram) ->
+                byCommand.computeIfAbsent(key.command(), k -> new LatencyHistogram()).add(histogram));
+        Map<String, Double> values = new LinkedHashMap<>();
+        byCommand.forEach((command, h) -> values.put(command, h.percentileMillis(percentile)));
+        return values;
+    }
+
+    /**
+     * Lists the slowest command/page/locator combinations by p95.
+     *
+     * @param limit the number of entries
+     * @return the entries with count, p50, p95, p99 and max in milliseconds
+     */
+    public static String slowest(int limit) {
+        List<Map.Entry<Key, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingDouble((Map.Entry<Key, LatencyHistogram> e) -> e.getValue().percentileMillis(95)).reversed());
+        Map<String, String> summary = new LinkedHashMap<>();
+        for (Map.Entry<Key, LatencyHistogram> e : entries.subList(0, Math.min(limit, entries.size()))) {
+            Key key = e.getKey();
+            summary.put(key.command() + " " + key.page() + " " + key.locator(), describe(e.getValue()));
+        }
+        return summary.toString();
+    }
+
+    private static String describe(LatencyHistogram h) {
+        return String.format("count=%d, p50=%.1f, p95=%.1f, p99=%.1f, maxMs=%.1f", h.count(),
+                h.percentileMillis(50), h.percentileMillis(95), h.percentileMillis(99), h.maxMillis());
+    }
+
+    /**
+     * Writes every histogram as a JSON array with one object per command, page and locator.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(Path file) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        histograms.forEach((key, h) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("command", key.command());
+            row.put("page", key.page());
+            row.put("locator", key.locator());
+            row.put("count", h.count());
+            row.put("meanMs", h.meanMillis());
+            row.put("p50Ms", h.percentileMillis(50));
+            row.put("p95Ms", h.percentileMillis(95));
+            row.put("p99Ms", h.percentileMillis(99));
+            row.put("maxMs", h.maxMillis());
+            rows.add(row);
+        });
+        rows.sort(Comparator.comparing((Map<String, Object> r) -> (String) r.get("command"))
+                .thenComparing(r -> (String) r.get("page")).thenComparing(r -> (String) r.get("locator")));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write(new Json().toJson(rows));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package Support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ElementCache holds the lazily found elements of one page object. Each element is looked up on
+ * first use and reused afterwards; when one of them goes stale (navigation or re-render), the
+ * whole page's cache is dropped, because the rest of the document has most likely been replaced too.
+ */
+public final class ElementCache {
+
+    // Cache statistics across all page objects
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private final List<LazyElement> elements = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a cached element that is looked up with the given locator on first use.
+     *
+     * @param context     Driver or element to search from
+     * @param by          The element's locator
+     * @param description Name used in error messages, e.g. "HomePage.lnkLogin"
+     * @return a WebElement that resolves itself lazily
+     */
+    public WebElement element(SearchContext context, By by, String description) {
+        return element(() -> context.findElement(by), description + " (" + by + ")");
+    }
+
+    /**
+     * Creates a cached element that is looked up with the given finder on first use.
+     *
+     * @param finder      Finds the element, throwing NoSuchElementException if it is absent
+     * @param description Name used in error messages
+     * @return a WebElement that resolves itself lazily
+     */
+    public WebElement element(Supplier<WebElement> finder, String description) {
+        LazyElement element = new LazyElement(this, finder, description);
+        elements.add(element);
+        return element;
+    }
+
+    /**
+     * Drops every cached element of this page object.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (LazyElement element : elements) {
+            element.forget();
+        }
+    }
+
+    static void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    static void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Summarises cache hits, misses and invalidations across all page objects.
+     *
+     * @return a one-line statistics summary
+     */
+    public static String stats() {
+        return String.format("hits=%d, misses=%d, invalidations=%d", hits.get(), misses.get(), invalidations.get());
+    }
+}
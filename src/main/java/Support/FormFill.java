@@ -0,0 +1,244 @@
+package Support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FormFill sets several form fields in a single script command instead of one sendKeys per field.
+ * Values are assigned through the native value setter and followed by the input and change events
+ * a user would trigger, so the storefront's jQuery handlers (e.g. loading zones when the country
+ * changes) still run.
+ *
+ * <pre>
+ *     FormFill.on(driver).named("LoginPage.login")
+ *             .set(txtEmail, email)
+ *             .set(txtPwd, password)
+ *             .fill();
+ * </pre>
+ *
+ * Fields added with type() are always filled with real keystrokes after the bulk command, for
+ * inputs that depend on key events. A field the script cannot fill (e.g. a select option that is
+ * not there) also falls back to the WebDriver equivalent. With bulk filling disabled every field
+ * uses keystrokes and clicks, which gives the "before" timings to compare against.
+ */
+public final class FormFill {
+
+    private static volatile boolean bulkEnabled = true;
+
+    // Per "form [mode]": count and total nanos
+    private static final Map<String, AtomicLong[]> timings = new ConcurrentHashMap<>();
+
+    // Applies each field and returns the indexes the script could not fill
+    private static final String FILL_SCRIPT =
+            "var fields = arguments[0], failed = [];"
+                    + " function fire(el, type) { el.dispatchEvent(new Event(type, { bubbles: true })); }"
+                    + " for (var i = 0; i < fields.length; i++) {"
+                    + "  var f = fields[i], el = f.element;"
+                    + "  try {"
+                    + "   if (f.kind === 'set') {"
+                    + "    var proto = Object.getPrototypeOf(el), d = Object.getOwnPropertyDescriptor(proto, 'value');"
+                    + "    el.focus();"
+                    + "    if (d && d.set) { d.set.call(el, f.value); } else { el.value = f.value; }"
+                    + "    fire(el, 'input'); fire(el, 'change'); el.blur();"
+                    + "   } else if (f.kind === 'select') {"
+                    + "    var match = -1;"
+                    + "    for (var j = 0; j < el.options.length; j++) {"
+                    + "     if (el.options[j].text.trim() === f.value) { match = j; break; }"
+                    + "    }"
+                    + "    if (match < 0) { failed.push(i); continue; }"
+                    + "    if (el.selectedIndex !== match) { el.selectedIndex = match; fire(el, 'input'); fire(el, 'change'); }"
+                    + "   } else if (f.kind === 'check') {"
+                    + "    if (!('checked' in el) || !el.checked) { el.click(); }"
+                    + "   }"
+                    + "  } catch (e) { failed.push(i); }"
+                    + " }"
+                    + " return failed;";
+
+    private final WebDriver driver;
+    private final List<Field> fields = new ArrayList<>();
+    private String name = "unnamed";
+
+    private record Field(String kind, WebElement element, String value) {
+    }
+
+    private FormFill(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Starts an empty form fill on the given driver.
+     *
+     * @param driver WebDriver the form is filled through
+     * @return a new FormFill
+     */
+    public static FormFill on(WebDriver driver) {
+        return new FormFill(driver);
+    }
+
+    /**
+     * Enables or disables bulk filling for all forms. When disabled, fields are typed and clicked
+     * one at a time as before.
+     *
+     * @param enabled Whether to fill forms in a single command
+     */
+    public static void setBulkEnabled(boolean enabled) {
+        bulkEnabled = enabled;
+    }
+
+    /**
+     * Names the form for the timing summary, e.g. "RegistrationPage.register".
+     *
+     * @param name The form name
+     * @return this FormFill
+     */
+    public FormFill named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Sets a text, email, telephone or password input.
+     *
+     * @param element The input
+     * @param value   The value to set
+     * @return this FormFill
+     */
+    public FormFill set(WebElement element, String value) {
+        fields.add(new Field("set", element, value));
+        return this;
+    }
+
+    /**
+     * Selects the option with the given visible text.
+     *
+     * @param element The select element
+     * @param text    The option's visible text
+     * @return this FormFill
+     */
+    public FormFill select(WebElement element, String text) {
+        fields.add(new Field("select", element, text));
+        return this;
+    }
+
+    /**
+     * Ticks a checkbox or radio button, or clicks its label. Already ticked inputs are left alone.
+     *
+     * @param element The checkbox, radio button or label
+     * @return this FormFill
+     */
+    public FormFill check(WebElement element) {
+        fields.add(new Field("check", element, null));
+        return this;
+    }
+
+    /**
+     * Types into a field with real keystrokes, for inputs that react to key events.
+     *
+     * @param element The input
+     * @param value   The text to type
+     * @return this FormFill
+     */
+    public FormFill type(WebElement element, String value) {
+        fields.add(new Field("type", element, value));
+        return this;
+    }
+
+    /**
+     * Fills all fields: the bulk ones in one command, then keystroke fields and any fallbacks.
+     */
+    public void fill() {
+        long start = System.nanoTime();
+        boolean bulk = bulkEnabled;
+        List<Field> oneByOne = bulk ? fillInBulk() : fields;
+        for (Field field : oneByOne) {
+            fillOne(field);
+        }
+        AtomicLong[] entry = timings.computeIfAbsent(name + (bulk ? " [bulk]" : " [keys]"),
+                k -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+        entry[0].incrementAndGet();
+        entry[1].addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the fill script and returns the fields still to be filled one at a time.
+     */
+    private List<Field> fillInBulk() {
+        List<Map<String, Object>> payload = new ArrayList<>();
+        List<Field> remaining = new ArrayList<>();
+        List<Field> scripted = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.kind().equals("type")) {
+                remaining.add(field);
+                continue;
+            }
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("kind", field.kind());
+            entry.put("element", field.element());
+            if (field.value() != null) {
+                entry.put("value", field.value());
+            }
+            payload.add(entry);
+            scripted.add(field);
+        }
+        if (payload.isEmpty()) {
+            return remaining;
+        }
+
+        List<?> failed;
+        try {
+            failed = (List<?>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, payload);
+        } catch (StaleElementReferenceException e) {
+            // A cached element went stale; filling one by one re-finds it
+            scripted.addAll(remaining);
+            return scripted;
+        }
+        List<Field> fallback = new ArrayList<>();
+        for (Object index : failed) {
+            fallback.add(scripted.get(((Number) index).intValue()));
+        }
+        fallback.addAll(remaining);
+        return fallback;
+    }
+
+    private void fillOne(Field field) {
+        switch (field.kind()) {
+            case "select":
+                new Select(field.element()).selectByVisibleText(field.value());
+                break;
+            case "check":
+                if (!field.element().isSelected()) {
+                    field.element().click();
+                }
+                break;
+            default:
+                field.element().clear();
+                field.element().sendKeys(field.value());
+        }
+    }
+
+    /**
+     * Summarises average fill time per form and mode, e.g. "LoginPage.login [bulk]: 2 x 38 ms".
+     *
+     * @return one entry per form and mode
+     */
+    public static String summary() {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(timings).forEach((form, entry) -> {
+            long count = entry[0].get();
+            out.append(out.length() == 0 ? "" : ", ").append(form).append(": ").append(count)
+                    .append(" x ").append(entry[1].get() / count / 1_000_000).append(" ms");
+        });
+        return out.length() == 0 ? "none" : out.toString();
+    }
+}
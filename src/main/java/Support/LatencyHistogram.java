@@ -0,0 +1,116 @@
+package Support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in log-linear buckets: exact below 64 microseconds, then 32
+ * buckets per power of two, so any percentile is within about 3% of the true value. Recording is
+ * one array increment and never allocates or locks, so it can sit on every WebDriver command.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 64;      // Values below this many micros get their own bucket
+    private static final int SUB_BUCKETS = 32; // Buckets per power of two above that
+    private static final int BUCKETS = LINEAR + (63 - 6) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucket(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private static int bucket(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros); // 6 or more
+        int sub = (int) (micros >>> (magnitude - 5)) & (SUB_BUCKETS - 1);
+        return LINEAR + (magnitude - 6) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the upper bound of a bucket, in microseconds.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int magnitude = (bucket - LINEAR) / SUB_BUCKETS + 6;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (magnitude - 5)) - 1;
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return the mean in milliseconds
+     */
+    public double meanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalMicros.get() / 1_000.0 / n;
+    }
+
+    /**
+     * @return the largest recorded duration in milliseconds
+     */
+    public double maxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    /**
+     * Returns a percentile, e.g. 95 for p95.
+     *
+     * @param percentile the percentile, 0 to 100
+     * @return the duration in milliseconds below which that share of the recorded durations fall
+     */
+    public double percentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    /**
+     * Adds another histogram's counts to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.addAndGet(other.count.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+}
@@ -0,0 +1,191 @@
+package Support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * LazyElement is a plain WebElement that finds its element on first use and keeps it. If the
+ * element has gone stale, the owning ElementCache is invalidated, the element is found again and
+ * the call is retried once. Created through ElementCache; page objects only see WebElement.
+ */
+final class LazyElement implements WebElement, WrapsElement, Locatable {
+
+    private final ElementCache cache;
+    private final Supplier<WebElement> finder;
+    private final String description;
+    private volatile WebElement cached;
+
+    LazyElement(ElementCache cache, Supplier<WebElement> finder, String description) {
+        this.cache = cache;
+        this.finder = finder;
+        this.description = description;
+    }
+
+    void forget() {
+        cached = null;
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        WebElement element = cached;
+        if (element != null) {
+            ElementCache.recordHit();
+            return element;
+        }
+        ElementCache.recordMiss();
+        element = finder.get();
+        cached = element;
+        return element;
+    }
+
+    private <T> T call(Function<WebElement, T> action) {
+        try {
+            return action.apply(getWrappedElement());
+        } catch (StaleElementReferenceException e) {
+            // The document changed under us: drop the page's cache and try once more with a fresh element
+            cache.invalidateAll();
+            return action.apply(getWrappedElement());
+        }
+    }
+
+    private void run(Consumer<WebElement> action) {
+        call(e -> {
+            action.accept(e);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(e -> e.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return call(e -> e.getDomProperty(name));
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return call(e -> e.getDomAttribute(name));
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return call(e -> e.getAttribute(name));
+    }
+
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(e -> e.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(e -> e.findElement(by));
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(e -> e.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return call(e -> e.getScreenshotAs(target));
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return call(e -> ((Locatable) e).getCoordinates());
+    }
+
+    @Override
+    public String toString() {
+        return "Lazy element for: " + description;
+    }
+}
@@ -0,0 +1,129 @@
+package Support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PageBudget is the most a page's load may cost: time to first byte, DOMContentLoaded and load
+ * times, and the number and transfer size of its resources. A page object declares its budget once,
+ * usually as a static field, for the OpenCart route its documents are served from, and returns it
+ * from budget():
+ *
+ * <pre>
+ *     private static final PageBudget BUDGET = PageBudget.forRoute("account/login")
+ *             .ttfb(1500).domContentLoaded(3000).load(5000).resources(60).transferKb(1024);
+ * </pre>
+ *
+ * A load over budget fails the test; -DpageBudgets.enforce=false only counts it. Set each limit
+ * from the page's p95 in the last runs' reports/*-pages.json (see PageTimings.writeJson()) plus
+ * some headroom, and revisit it when the page changes. Limits that are not set are not checked.
+ */
+public final class PageBudget {
+
+    private final String route;
+    private long ttfbMs = Long.MAX_VALUE;
+    private long domContentLoadedMs = Long.MAX_VALUE;
+    private long loadMs = Long.MAX_VALUE;
+    private long resources = Long.MAX_VALUE;
+    private long transferKb = Long.MAX_VALUE;
+
+    private PageBudget(String route) {
+        this.route = route;
+    }
+
+    /**
+     * Starts a budget without limits or route; page objects with it record no loads.
+     *
+     * @return a new PageBudget
+     */
+    public static PageBudget define() {
+        return new PageBudget(null);
+    }
+
+    /**
+     * Starts a budget without limits for the documents of one OpenCart route. Loads are attributed
+     * to a page object only when the document's route matches, so a page object created while
+     * another page is shown never records that page's load.
+     *
+     * @param route the "route" parameter of the page's URL, e.g. "product/search"; the home page
+     *              is "common/home", also when the URL has no route
+     * @return a new PageBudget
+     */
+    public static PageBudget forRoute(String route) {
+        return new PageBudget(route);
+    }
+
+    /**
+     * @return the route whose documents this budget covers, or null for none
+     */
+    public String route() {
+        return route;
+    }
+
+    /**
+     * @param millis the longest time from navigation start to the first response byte
+     * @return this PageBudget
+     */
+    public PageBudget ttfb(long millis) {
+        ttfbMs = millis;
+        return this;
+    }
+
+    /**
+     * @param millis the longest time from navigation start to the end of DOMContentLoaded
+     * @return this PageBudget
+     */
+    public PageBudget domContentLoaded(long millis) {
+        domContentLoadedMs = millis;
+        return this;
+    }
+
+    /**
+     * @param millis the longest time from navigation start to the end of the load event
+     * @return this PageBudget
+     */
+    public PageBudget load(long millis) {
+        loadMs = millis;
+        return this;
+    }
+
+    /**
+     * @param count the most resources (scripts, styles, images, XHRs) the page may request
+     * @return this PageBudget
+     */
+    public PageBudget resources(long count) {
+        resources = count;
+        return this;
+    }
+
+    /**
+     * @param kilobytes the most the document and its resources may transfer over the network
+     * @return this PageBudget
+     */
+    public PageBudget transferKb(long kilobytes) {
+        transferKb = kilobytes;
+        return this;
+    }
+
+    /**
+     * Lists the limits a page load exceeded.
+     *
+     * @param timing the page load
+     * @return one line per exceeded limit, empty if the load is within budget
+     */
+    public List<String> violations(PageTimings.Timing timing) {
+        List<String> violations = new ArrayList<>();
+        check(violations, "TTFB", timing.ttfbMs(), ttfbMs, " ms");
+        check(violations, "DOMContentLoaded", timing.domContentLoadedMs(), domContentLoadedMs, " ms");
+        check(violations, "load", timing.loadMs(), loadMs, " ms");
+        check(violations, "resources", timing.resources(), resources, "");
+        check(violations, "transfer", timing.transferBytes() / 1024.0, transferKb, " KB");
+        return violations;
+    }
+
+    private static void check(List<String> violations, String name, double actual, long limit, String unit) {
+        if (actual > limit) {
+            violations.add(String.format("%s %.0f%s > %d%s", name, actual, unit, limit, unit));
+        }
+    }
+}
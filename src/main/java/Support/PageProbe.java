@@ -0,0 +1,255 @@
+package Support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PageProbe reads the state of several elements in a single script round trip: whether each is
+ * present and visible, its text and the attributes asked for. A page object declares its locators
+ * once, usually as a static field:
+ *
+ * <pre>
+ *     private static final PageProbe PROBE = PageProbe.define()
+ *             .xpath("successMsg", "//div[@class='alert alert-success alert-dismissible']")
+ *             .css("quantity", "div.input-group input", "value");
+ *
+ *     boolean shown = PROBE.read(driver).isVisible("successMsg");
+ * </pre>
+ *
+ * The helper script and the locators are installed into the page once per document. Later reads
+ * only send the probe id; the full script is sent again only after a navigation loads a new document.
+ * Absent elements are reported as not present instead of blocking for the implicit wait.
+ * Each read also reports the document's URL and load state, and whether markDocument() was called
+ * on it, which tells a page that is about to be replaced apart from the one that replaced it.
+ */
+public final class PageProbe {
+
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    // Probe statistics across all page objects
+    private static final AtomicLong reads = new AtomicLong();
+    private static final AtomicLong injections = new AtomicLong();
+
+    // Reads through the helper already installed in the document; null when it is missing
+    private static final String READ_SCRIPT =
+            "var p = window.__pageProbe;"
+                    + " return p && p.specs[arguments[0]] ? p.read(arguments[0]) : null;";
+
+    // Marks the current document; the mark disappears with it when a navigation replaces it
+    private static final String MARK_SCRIPT = "window.__pageProbeMark = true;";
+
+    // Installs the helper and this probe's locators into the document, then reads
+    private static final String INSTALL_SCRIPT =
+            "var w = window;"
+                    + " if (!w.__pageProbe) {"
+                    + "  w.__pageProbe = { specs: {}, read: function (id) {"
+                    + "   var out = {}, specs = this.specs[id];"
+                    + "   for (var i = 0; i < specs.length; i++) {"
+                    + "    var s = specs[i], el = null;"
+                    + "    try {"
+                    + "     el = s.xpath"
+                    + "      ? document.evaluate(s.xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+                    + "      : document.querySelector(s.css);"
+                    + "    } catch (e) { el = null; }"
+                    + "    if (!el) { out[s.name] = { present: false, visible: false, text: '', attributes: {} }; continue; }"
+                    + "    var style = w.getComputedStyle(el), attrs = {};"
+                    + "    var visible = !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length)"
+                    + "     && style.visibility !== 'hidden' && style.display !== 'none';"
+                    + "    for (var j = 0; j < s.attributes.length; j++) {"
+                    + "     var a = s.attributes[j], v = a in el && typeof el[a] !== 'function' ? el[a] : el.getAttribute(a);"
+                    + "     attrs[a] = v === null || v === undefined ? null : String(v);"
+                    + "    }"
+                    + "    out[s.name] = { present: true, visible: visible,"
+                    + "     text: (visible ? el.innerText || el.textContent || '' : '').trim(), attributes: attrs };"
+                    + "   }"
+                    + "   return { url: location.href, complete: document.readyState === 'complete',"
+                    + "    marked: !!w.__pageProbeMark, elements: out };"
+                    + "  } };"
+                    + " }"
+                    + " w.__pageProbe.specs[arguments[0]] = arguments[1];"
+                    + " return w.__pageProbe.read(arguments[0]);";
+
+    private final String id = "probe" + ids.incrementAndGet();
+    private final List<Map<String, Object>> specs = new ArrayList<>();
+
+    private PageProbe() {
+    }
+
+    /**
+     * Starts an empty probe definition.
+     *
+     * @return a new PageProbe
+     */
+    public static PageProbe define() {
+        return new PageProbe();
+    }
+
+    /**
+     * Adds an element located by XPath.
+     *
+     * @param name       The name the element's state is reported under
+     * @param xpath      The XPath locator
+     * @param attributes Attributes (or DOM properties such as "value") to read
+     * @return this PageProbe
+     */
+    public PageProbe xpath(String name, String xpath, String... attributes) {
+        return add(name, "xpath", xpath, attributes);
+    }
+
+    /**
+     * Adds an element located by CSS selector.
+     *
+     * @param name       The name the element's state is reported under
+     * @param css        The CSS selector
+     * @param attributes Attributes (or DOM properties such as "value") to read
+     * @return this PageProbe
+     */
+    public PageProbe css(String name, String css, String... attributes) {
+        return add(name, "css", css, attributes);
+    }
+
+    private PageProbe add(String name, String kind, String locator, String... attributes) {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("name", name);
+        spec.put(kind, locator);
+        spec.put("attributes", List.of(attributes));
+        specs.add(Collections.unmodifiableMap(spec));
+        return this;
+    }
+
+    /**
+     * Reads the state of all declared elements in one round trip (two right after a navigation).
+     *
+     * @param driver WebDriver whose current document is probed
+     * @return the state of every declared element
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot read(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        reads.incrementAndGet();
+        Object result = js.executeScript(READ_SCRIPT, id);
+        if (result == null) {
+            // New document: the helper and locators have to be installed first
+            injections.incrementAndGet();
+            result = js.executeScript(INSTALL_SCRIPT, id, specs);
+        }
+        return new Snapshot((Map<String, Object>) result);
+    }
+
+    /**
+     * Marks the current document, e.g. right before submitting a form. Snapshots of the same
+     * document report isMarked(); once the submit has loaded a new document they no longer do.
+     *
+     * @param driver WebDriver whose current document is marked
+     */
+    public static void markDocument(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(MARK_SCRIPT);
+    }
+
+    /**
+     * Summarises how many reads were made and how many needed the helper to be installed.
+     *
+     * @return a one-line statistics summary
+     */
+    public static String stats() {
+        return String.format("reads=%d, injections=%d", reads.get(), injections.get());
+    }
+
+    /**
+     * The state of one element at the time of the read.
+     *
+     * @param present    Whether the element was found
+     * @param visible    Whether it was rendered and not hidden
+     * @param text       Its visible text, trimmed; empty when hidden or absent
+     * @param attributes The requested attributes; null values for attributes that are not set
+     */
+    public record State(boolean present, boolean visible, String text, Map<String, String> attributes) {
+    }
+
+    /**
+     * The states of all elements of one probe, keyed by name.
+     */
+    public static final class Snapshot {
+        private final Map<String, State> states = new LinkedHashMap<>();
+        private final String url;
+        private final boolean complete;
+        private final boolean marked;
+
+        @SuppressWarnings("unchecked")
+        Snapshot(Map<String, Object> raw) {
+            url = String.valueOf(raw.get("url"));
+            complete = Boolean.TRUE.equals(raw.get("complete"));
+            marked = Boolean.TRUE.equals(raw.get("marked"));
+            ((Map<String, Map<String, Object>>) raw.get("elements")).forEach((name, value) -> states.put(name, new State(
+                    Boolean.TRUE.equals(value.get("present")),
+                    Boolean.TRUE.equals(value.get("visible")),
+                    String.valueOf(value.get("text")),
+                    Collections.unmodifiableMap((Map<String, String>) value.get("attributes")))));
+        }
+
+        /**
+         * Returns the state of a declared element.
+         *
+         * @param name The element name
+         * @return the element's state
+         * @throws IllegalArgumentException if no element with that name was declared
+         */
+        public State get(String name) {
+            State state = states.get(name);
+            if (state == null) {
+                throw new IllegalArgumentException("No element named '" + name + "' in probe, declared: " + states.keySet());
+            }
+            return state;
+        }
+
+        public boolean isPresent(String name) {
+            return get(name).present();
+        }
+
+        public boolean isVisible(String name) {
+            return get(name).visible();
+        }
+
+        public String text(String name) {
+            return get(name).text();
+        }
+
+        public String attribute(String name, String attribute) {
+            return get(name).attributes().get(attribute);
+        }
+
+        /**
+         * @return the document URL at the time of the read
+         */
+        public String url() {
+            return url;
+        }
+
+        /**
+         * @return true if the document had finished loading (readyState "complete")
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * @return true if the document is the one markDocument() was last called on
+         */
+        public boolean isMarked() {
+            return marked;
+        }
+
+        @Override
+        public String toString() {
+            return url + " " + states;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package Support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PageTimings records how long each document took to load, per page object type, from the
+ * browser's Navigation and Resource Timing entries: time to first byte, DOMContentLoaded, the load
+ * event, and the number and transfer size of the resources the page requested.
+ * <p>
+ * Page objects call capture() when they are created and after their waits. A document is recorded
+ * by a page object whose PageBudget route matches the document's URL, once it has fully loaded;
+ * the page type is written into the document so it is not recorded twice. The load is then
+ * checked against the page's PageBudget; loads over budget are counted in summary() and, unless
+ * enforcement is turned off, fail the test with an AssertionError. read() returns a document's
+ * timing without recording it.
+ * Browsers without the Navigation Timing Level 2 API fall back to performance.timing.
+ */
+public final class PageTimings {
+
+    // Reads the current document's timing once it has loaded, in one round trip, and claims it for
+    // arguments[0] if arguments[1] is true; null while loading or when it is not of route arguments[2], if given
+    private static final String CAPTURE_SCRIPT =
+            "var w = window, p = w.performance, claim = arguments[1];"
+                    + " var m = /[?&]route=([^&#]*)/.exec(location.search);"
+                    + " if (arguments[2] && (m ? decodeURIComponent(m[1]) : 'common/home') !== arguments[2]) { return null; }"
+                    + " if (claim && w.__pageTiming) { return { recordedBy: w.__pageTiming }; }"
+                    + " if (!p) { return { recordedBy: '' }; }"
+                    + " var n = p.getEntriesByType ? p.getEntriesByType('navigation')[0] : null, t;"
+                    + " if (n) {"
+                    + "  if (!(n.loadEventEnd > 0)) { return null; }"
+                    + "  t = { ttfb: n.responseStart - n.startTime, dcl: n.domContentLoadedEventEnd - n.startTime,"
+                    + "   load: n.loadEventEnd - n.startTime, bytes: n.transferSize || 0 };"
+                    + " } else if (p.timing && p.timing.navigationStart > 0) {"
+                    + "  var o = p.timing;"
+                    + "  if (!(o.loadEventEnd > 0)) { return null; }"
+                    + "  t = { ttfb: o.responseStart - o.navigationStart, dcl: o.domContentLoadedEventEnd - o.navigationStart,"
+                    + "   load: o.loadEventEnd - o.navigationStart, bytes: 0 };"
+                    + " } else { return { recordedBy: '' }; }"
+                    + " var r = p.getEntriesByType ? p.getEntriesByType('resource') : [];"
+                    + " t.resources = r.length;"
+                    + " for (var i = 0; i < r.length; i++) { t.bytes += r[i].transferSize || 0; }"
+                    + " t.url = location.href;"
+                    + " t.page = w.__pageTiming || '';"
+                    + " if (claim) { w.__pageTiming = arguments[0]; }"
+                    + " return t;";
+
+    /**
+     * One recorded page load.
+     *
+     * @param page               the page object type, e.g. "SearchPage"; empty if no page object recorded it
+     * @param url                the document's URL
+     * @param ttfbMs             navigation start to the first response byte
+     * @param domContentLoadedMs navigation start to the end of DOMContentLoaded
+     * @param loadMs             navigation start to the end of the load event
+     * @param resources          the number of resources requested so far
+     * @param transferBytes      the bytes transferred for the document and its resources; cached ones count as 0
+     */
+    public record Timing(String page, String url, double ttfbMs, double domContentLoadedMs, double loadMs,
+                         long resources, long transferBytes) {
+    }
+
+    // Per page type: the three timings, plus resource and byte totals and budget failures
+    private static final class Stats {
+        final LatencyHistogram ttfb = new LatencyHistogram();
+        final LatencyHistogram domContentLoaded = new LatencyHistogram();
+        final LatencyHistogram load = new LatencyHistogram();
+        final LongAdder resources = new LongAdder();
+        final LongAdder transferBytes = new LongAdder();
+        final LongAdder overBudget = new LongAdder();
+    }
+
+    private static final Map<String, Stats> byPage = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+    private static volatile boolean enforceBudgets = true;
+
+    private PageTimings() {
+    }
+
+    /**
+     * Turns page load capture on or off.
+     *
+     * @param on whether page objects record their loads
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Sets whether a load over budget fails the test, the default, or is only counted.
+     *
+     * @param enforce true to throw an AssertionError on exceeded budgets
+     */
+    public static void setEnforceBudgets(boolean enforce) {
+        enforceBudgets = enforce;
+    }
+
+    /**
+     * Records the current document for a page type if it is of the budget's route, has loaded and
+     * has not been recorded yet.
+     *
+     * @param driver the page's driver
+     * @param page   the page object type
+     * @param budget the page's budget
+     * @return true once there is nothing left for this page object to record: its document is
+     * recorded, or the budget has no route, or capture is off or unsupported; false while the
+     * document is still loading or is not of the budget's route yet
+     * @throws AssertionError if the load exceeds the budget and budgets are enforced
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean capture(WebDriver driver, String page, PageBudget budget) {
+        if (!enabled || budget.route() == null || !(driver instanceof JavascriptExecutor js)) {
+            return true;
+        }
+        Map<String, Object> raw;
+        try {
+            raw = (Map<String, Object>) js.executeScript(CAPTURE_SCRIPT, page, true, budget.route());
+        } catch (WebDriverException e) {
+            return false; // E.g. an alert is open or the document is being replaced; try again later
+        }
+        if (raw == null) {
+            return false;
+        }
+        if (raw.containsKey("recordedBy")) {
+            return true; // Already recorded, or the browser has no timing API
+        }
+        Timing timing = timing(page, raw);
+        Stats stats = byPage.computeIfAbsent(page, k -> new Stats());
+        stats.ttfb.record((long) (timing.ttfbMs() * 1_000_000));
+        stats.domContentLoaded.record((long) (timing.domContentLoadedMs() * 1_000_000));
+        stats.load.record((long) (timing.loadMs() * 1_000_000));
+        stats.resources.add(timing.resources());
+        stats.transferBytes.add(timing.transferBytes());
+
+        List<String> violations = budget.violations(timing);
+        if (!violations.isEmpty()) {
+            stats.overBudget.increment();
+            if (enforceBudgets) {
+                throw new AssertionError(page + " exceeded its performance budget at " + timing.url() + ": " + violations);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the current document's load without recording it or claiming it for a page type.
+     *
+     * @param driver the driver showing the document
+     * @return the load, with the page type that recorded it or an empty one; null while the
+     * document is still loading or if the browser has no timing API
+     */
+    @SuppressWarnings("unchecked")
+    public static Timing read(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            return null;
+        }
+        try {
+            Map<String, Object> raw = (Map<String, Object>) js.executeScript(CAPTURE_SCRIPT, "", false, "");
+            return raw == null || raw.containsKey("recordedBy") ? null : timing(String.valueOf(raw.get("page")), raw);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+
+    private static Timing timing(String page, Map<String, Object> raw) {
+        return new Timing(page, String.valueOf(raw.get("url")), number(raw, "ttfb"), number(raw, "dcl"),
+                number(raw, "load"), (long) number(raw, "resources"), (long) number(raw, "bytes"));
+    }
+
+    private static double number(Map<String, Object> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof Number n ? Math.max(0, n.doubleValue()) : 0;
+    }
+
+    /**
+     * Summarises page loads per page type.
+     *
+     * @return one entry per page type with load count, TTFB, DOMContentLoaded and load p50/p95,
+     * average resources and KB, and loads over budget
+     */
+    public static String summary() {
+        Map<String, String> summary = new TreeMap<>();
+        byPage.forEach((page, s) -> {
+            long count = s.load.count();
+            summary.put(page, String.format(
+                    "loads=%d, ttfb p50=%.0f p95=%.0f, domContentLoaded p50=%.0f p95=%.0f, load p50=%.0f p95=%.0f ms,"
+                            + " avgResources=%.1f, avgTransfer=%.0f KB, overBudget=%d",
+                    count, s.ttfb.percentileMillis(50), s.ttfb.percentileMillis(95),
+                    s.domContentLoaded.percentileMillis(50), s.domContentLoaded.percentileMillis(95),
+                    s.load.percentileMillis(50), s.load.percentileMillis(95),
+                    count == 0 ? 0 : s.resources.sum() / (double) count,
+                    count == 0 ? 0 : s.transferBytes.sum() / 1024.0 / count, s.overBudget.sum()));
+        });
+        return summary.toString();
+    }
+
+    /**
+     * Writes the per page type figures as a JSON array, for tooling that compares runs.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(Path file) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new TreeMap<>(byPage).forEach((page, s) -> {
+            long count = s.load.count();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", page);
+            row.put("loads", count);
+            row.put("ttfbP50Ms", s.ttfb.percentileMillis(50));
+            row.put("ttfbP95Ms", s.ttfb.percentileMillis(95));
+            row.put("domContentLoadedP50Ms", s.domContentLoaded.percentileMillis(50));
+            row.put("domContentLoadedP95Ms", s.domContentLoaded.percentileMillis(95));
+            row.put("loadP50Ms", s.load.percentileMillis(50));
+            row.put("loadP95Ms", s.load.percentileMillis(95));
+            row.put("avgResources", count == 0 ? 0 : s.resources.sum() / (double) count);
+            row.put("avgTransferBytes", count == 0 ? 0 : s.transferBytes.sum() / (double) count);
+            row.put("overBudget", s.overBudget.sum());
+            rows.add(row);
+        });
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write(new Json().toJson(rows));
+        }
+    }
+}
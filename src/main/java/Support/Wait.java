@@ -0,0 +1,164 @@
+package Support;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wait polls a condition until it is met, backing off between polls, and records how long it took.
+ * It replaces fixed Thread.sleep calls and the blanket implicit wait.
+ *
+ * <pre>
+ *     Wait.on(driver).named("SearchPage.results").timeout(Duration.ofSeconds(5))
+ *         .until(ExpectedConditions.visibilityOfElementLocated(By.id("content")));
+ * </pre>
+ */
+public final class Wait {
+
+    // First poll interval; doubled after every miss up to MAX_POLL
+    static final Duration INITIAL_POLL = Duration.ofMillis(25);
+    static final Duration MAX_POLL = Duration.ofMillis(500);
+
+    private static volatile Duration defaultTimeout = Duration.ofSeconds(10);
+
+    private final WebDriver driver;
+    private String name = "unnamed";
+    private Duration timeout = defaultTimeout;
+
+    private Wait(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Starts a wait on the given driver with the default timeout.
+     *
+     * @param driver WebDriver the condition is evaluated against
+     * @return a new Wait
+     */
+    public static Wait on(WebDriver driver) {
+        return new Wait(driver);
+    }
+
+    /**
+     * Sets the timeout used by waits that do not set their own.
+     *
+     * @param timeout The default timeout
+     */
+    public static void setDefaultTimeout(Duration timeout) {
+        defaultTimeout = timeout;
+    }
+
+    /**
+     * Names the wait for logging and WaitStats, e.g. "SearchPage.results".
+     *
+     * @param name The wait name
+     * @return this Wait
+     */
+    public Wait named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Sets the timeout for this wait only.
+     *
+     * @param timeout How long to wait before giving up
+     * @return this Wait
+     */
+    public Wait timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Polls the condition until it returns a non-null value other than Boolean.FALSE.
+     * Missing and stale elements count as "not yet".
+     *
+     * @param condition The condition to evaluate, e.g. an ExpectedCondition
+     * @param <T>       The condition's result type
+     * @return the condition's result
+     * @throws TimeoutException if the condition is not met within the timeout
+     */
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollNanos = INITIAL_POLL.toNanos();
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    WaitStats.record(name, System.nanoTime() - start, false);
+                    return value;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                WaitStats.record(name, System.nanoTime() - start, true);
+                throw new TimeoutException("Wait '" + name + "' timed out after " + timeout.toMillis() + " ms", lastError);
+            }
+            sleep(Math.min(pollNanos, remaining));
+            pollNanos = Math.min(pollNanos * 2, MAX_POLL.toNanos());
+        }
+    }
+
+    /**
+     * Like until, but returns false instead of throwing when the timeout expires.
+     *
+     * @param condition The condition to evaluate
+     * @return true if the condition was met within the timeout
+     */
+    public boolean tryUntil(Function<? super WebDriver, ?> condition) {
+        try {
+            until(condition);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits until the decision function returns TRUE or FALSE, for checks whose negative outcome
+     * has its own signal (an error alert, a different page). A FALSE decision returns at once
+     * instead of waiting out the timeout, and the time saved is recorded in WaitStats.
+     * Null means "not decided yet"; if nothing is decided in time the result is false.
+     *
+     * @param decision Returns TRUE or FALSE once the outcome is known, null until then
+     * @return the decision, or false if the timeout expired first
+     */
+    public boolean decide(Function<? super WebDriver, Boolean> decision) {
+        long start = System.nanoTime();
+        Optional<Boolean> result;
+        try {
+            result = until(d -> {
+                Boolean value = decision.apply(d);
+                return value == null ? null : Optional.of(value);
+            });
+        } catch (TimeoutException e) {
+            return false;
+        }
+        if (!result.get()) {
+            WaitStats.recordSaved(name, timeout.toNanos() - (System.nanoTime() - start));
+        }
+        return result.get();
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", e);
+        }
+    }
+}
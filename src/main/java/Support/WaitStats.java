@@ -0,0 +1,96 @@
+package Support;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WaitStats records how long each named wait actually took, so the cost of waiting
+ * can be compared with the fixed sleeps it replaced.
+ */
+public final class WaitStats {
+
+    // Per wait name: count, total nanos, max nanos, timeouts
+    private static final Map<String, AtomicLong[]> stats = new ConcurrentHashMap<>();
+    // Per wait name: early absence decisions and the nanos they saved against the full timeout
+    private static final Map<String, AtomicLong[]> saved = new ConcurrentHashMap<>();
+
+    private WaitStats() {
+    }
+
+    /**
+     * Records one completed wait.
+     *
+     * @param name     The wait name, e.g. "SearchPage.results"
+     * @param nanos    How long the wait took
+     * @param timedOut Whether the wait gave up without the condition being met
+     */
+    static void record(String name, long nanos, boolean timedOut) {
+        AtomicLong[] entry = stats.computeIfAbsent(name,
+                k -> new AtomicLong[]{new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()});
+        entry[0].incrementAndGet();
+        entry[1].addAndGet(nanos);
+        entry[2].accumulateAndGet(nanos, Math::max);
+        if (timedOut) {
+            entry[3].incrementAndGet();
+        }
+    }
+
+    /**
+     * Records an absence that was decided before the timeout ran out.
+     *
+     * @param name       The wait name
+     * @param savedNanos Timeout minus the time the decision actually took
+     */
+    static void recordSaved(String name, long savedNanos) {
+        AtomicLong[] entry = saved.computeIfAbsent(name, k -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+        entry[0].incrementAndGet();
+        entry[1].addAndGet(Math.max(0, savedNanos));
+    }
+
+    /**
+     * Summarises the time fast absence checks saved compared with waiting out the timeout.
+     *
+     * @return total saved plus one entry per wait name with count and saved milliseconds
+     */
+    public static String savedSummary() {
+        Map<String, String> summary = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, AtomicLong[]> e : saved.entrySet()) {
+            total += e.getValue()[1].get();
+            summary.put(e.getKey(), String.format("count=%d, savedMs=%d",
+                    e.getValue()[0].get(), e.getValue()[1].get() / 1_000_000));
+        }
+        return "total " + total / 1_000_000 + " ms " + summary;
+    }
+
+    /**
+     * Returns the total time spent in all waits so far.
+     *
+     * @return total wait time in milliseconds
+     */
+    public static long totalMillis() {
+        long total = 0;
+        for (AtomicLong[] entry : stats.values()) {
+            total += entry[1].get();
+        }
+        return total / 1_000_000;
+    }
+
+    /**
+     * Summarises every named wait.
+     *
+     * @return one entry per wait name with count, average, max and timeouts
+     */
+    public static String summary() {
+        Map<String, String> summary = new TreeMap<>();
+        stats.forEach((name, entry) -> {
+            long count = entry[0].get();
+            summary.put(name, String.format("count=%d, avgMs=%d, maxMs=%d, timeouts=%d",
+                    count, count == 0 ? 0 : entry[1].get() / count / 1_000_000,
+                    entry[2].get() / 1_000_000, entry[3].get()));
+        });
+        return summary.toString();
+    }
+}
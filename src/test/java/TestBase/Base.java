@@ -1,26 +1,46 @@
 package TestBase;
 
+import Drivers.DriverFactory;
+import Drivers.DriverManager;
+import Drivers.DriverPool;
+import Drivers.LaunchProfile;
+import Drivers.NetworkMode;
+import Support.CommandTimings;
+import Support.ElementCache;
+import Support.FormFill;
+import Support.PageProbe;
+import Support.PageTimings;
+import Support.Wait;
+import Support.WaitStats;
+import Utilities.ExcelReader;
+import Utilities.ExcelResultWriter;
+import Utilities.PerfHistory;
+import Utilities.ScreenshotStore;
+import Utilities.SessionCache;
+import Utilities.TestDataFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
+import org.testng.Assert;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
-import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Base class for setting up the WebDriver and managing test configurations.
@@ -29,86 +49,218 @@ import java.util.Random;
  */
 public class Base {
 
-    public static WebDriver driver; // WebDriver instance for browser automation
     public Logger logger; // Logger instance for logging messages
     public Properties prop; // Properties instance for loading configuration
+    String browser; // Browser requested by the suite, used to start sessions on other worker threads
 
-    String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz"; // Characters for random string generation
-    String NUMERIC = "0123456789"; // Characters for random number generation
-    Random RANDOM = new Random(); // Random object for generating random values
+    static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz"; // Characters for random string generation
+    static final String NUMERIC = "0123456789"; // Characters for random number generation
 
     /**
      * Setup method that initializes the WebDriver based on provided parameters.
      * It loads configuration properties, sets timeouts, and navigates to the specified URL.
      *
      * @param os The operating system (default is "Windows")
-     * @param br The browser to use for testing (default is "chrome")
+     * @param br The driver backend to use for testing, e.g. "chrome", "edge", "firefox" or "htmlunit" (default is "chrome")
      * @throws IOException If there is an error reading the configuration file
+     * @throws IllegalArgumentException If no driver backend is registered under the given name, or
+     *                                  the configured launch profile is unknown
      */
     @BeforeClass(groups = {"Master", "Sanity", "Regression", "Monkey", "Gorilla", "Smoke"})
     @Parameters({"os", "br"})
     public void setUp(@Optional("Windows") String os, @Optional("chrome") String br) throws IOException {
         logger = LogManager.getLogger(this.getClass()); // Initialize logger for the current class
         logger.info("Initializing WebDriver setup...");
+        DriverFactory.backend(br); // Fail fast on unknown backend names instead of running without a driver
+
+        // Load configuration properties from the specified file
+        FileReader file = new FileReader("./src/test/resources/config.properties");
+        prop = new Properties();
+        prop.load(file);
+        logger.info("Loaded configuration properties from config.properties");
+
+        // A -DlaunchProfile system property (e.g. on CI agents) overrides config.properties; fail fast on unknown names too
+        LaunchProfile profile = LaunchProfile.fromName(System.getProperty("launchProfile", prop.getProperty("launchProfile")));
 
         try {
-            // Load configuration properties from the specified file
-            FileReader file = new FileReader("./src/test/resources/config.properties");
-            prop = new Properties();
-            prop.load(file);
-            logger.info("Loaded configuration properties from config.properties");
-
-            // Initialize the WebDriver based on the provided browser name
-            switch (br.toLowerCase()) {
-                case "chrome":
-                    driver = new ChromeDriver();
-                    logger.info("Launching Chrome browser...");
-                    break;
-                case "edge":
-                    driver = new EdgeDriver();
-                    logger.info("Launching Edge browser...");
-                    break;
-                case "firefox":
-                    driver = new FirefoxDriver();
-                    logger.info("Launching Firefox browser...");
-                    break;
-                default:
-                    logger.error("Invalid browser name: " + br); // Log error if the browser name is invalid
-                    return;
-            }
+            DriverFactory.setLaunchProfile(profile);
+
+            // Page objects wait explicitly for their own conditions, so the blanket implicit wait can be turned off
+            DriverFactory.setImplicitWait(Duration.ofSeconds(Long.parseLong(prop.getProperty("implicitWait", "10"))));
+            Wait.setDefaultTimeout(Duration.ofSeconds(Long.parseLong(prop.getProperty("waitTimeout", "10"))));
+
+            // Every WebDriver command's latency is recorded per command, page and locator; -DcommandTimings.enabled=false turns it off
+            DriverFactory.setCommandTimings(Boolean.parseBoolean(
+                    System.getProperty("commandTimings.enabled", prop.getProperty("commandTimings.enabled", "true"))));
+
+            // Page objects record their Navigation/Resource Timing; -DpageBudgets.enforce=false only counts loads over budget
+            PageTimings.setEnabled(Boolean.parseBoolean(
+                    System.getProperty("pageTimings.enabled", prop.getProperty("pageTimings.enabled", "true"))));
+            PageTimings.setEnforceBudgets(Boolean.parseBoolean(
+                    System.getProperty("pageBudgets.enforce", prop.getProperty("pageBudgets.enforce", "true"))));
+
+            // Forms are filled in one command; -DformFill.bulk=false types field by field for comparison
+            FormFill.setBulkEnabled(Boolean.parseBoolean(
+                    System.getProperty("formFill.bulk", prop.getProperty("formFill.bulk", "true"))));
 
-            // Clear all cookies and set timeouts
-            driver.manage().deleteAllCookies();
-            logger.info("Deleted all cookies.");
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(10));
-            logger.info("Set implicit wait and page load timeout.");
-
-            // Maximize the browser window and navigate to the specified URL
-            driver.manage().window().maximize();
-            logger.info("Maximized browser window.");
-            driver.get(prop.getProperty("url2")); // Load the URL from properties file
-            logger.info("Navigated to URL: " + prop.getProperty("url2"));
+            // Screenshots are written in the background, optionally scaled down, within a per-run disk budget
+            ScreenshotStore.configure(Path.of(System.getProperty("user.dir"), "screenshots"),
+                    Integer.parseInt(prop.getProperty("screenshots.maxWidth", "0")),
+                    prop.getProperty("screenshots.format", "png"),
+                    Long.parseLong(prop.getProperty("screenshots.budgetMb", "200")));
+
+            // Durations are kept per browser and compared to a rolling p95 baseline; -Dperf.gate=fail fails slower runs
+            PerfHistory.configure(Path.of(prop.getProperty("perf.historyDir", "perf-history")),
+                    Integer.parseInt(prop.getProperty("perf.baselineRuns", "10")),
+                    Integer.parseInt(prop.getProperty("perf.minRuns", "3")),
+                    Double.parseDouble(prop.getProperty("perf.tolerancePct", "20")),
+                    Long.parseLong(prop.getProperty("perf.minDeltaMs", "250")),
+                    System.getProperty("perf.gate", prop.getProperty("perf.gate", "flag")));
+
+            // Page-load strategy and request blocking for pages whose assertions don't need every resource
+            NetworkMode.configure(prop.getProperty("pageLoadStrategy"),
+                    splitList(prop.getProperty("network.blockedUrls")),
+                    new HashSet<>(splitList(prop.getProperty("network.blockedTypes"))));
+
+            browser = br;
+            startDriver();
         } catch (Exception e) {
             logger.error("Error during WebDriver setup: " + e.getMessage()); // Log any setup errors
         }
     }
 
+    /**
+     * Makes sure the current worker thread has a browser session before each test method.
+     * With parallel="methods" a test can run on a thread other than the one that ran setUp.
+     */
+    @BeforeMethod(groups = {"Master", "Sanity", "Regression", "Monkey", "Gorilla", "Smoke"})
+    public void ensureDriver() {
+        if (!DriverManager.hasDriver() && browser != null) {
+            logger.info("No browser bound to thread " + Thread.currentThread().getName() + ", starting one...");
+            startDriver();
+        }
+    }
+
+    /**
+     * Returns the WebDriver bound to the current thread.
+     *
+     * @return the current thread's WebDriver instance
+     */
+    public WebDriver getDriver() {
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * Signs the customer from config.properties in, restoring a cached session when one is available.
+     * Use this in tests that need a signed-in customer but do not verify the login UI itself.
+     */
+    public void signIn() {
+        SessionCache.signIn(getDriver(), prop.getProperty("url2"), prop.getProperty("email"), prop.getProperty("password"));
+    }
+
+    /**
+     * Launches the configured browser, binds it to the current thread and opens the application URL.
+     */
+    void startDriver() {
+        // Lease a warm session from the pool when enabled, otherwise launch a new browser
+        WebDriver driver = isPoolEnabled()
+                ? DriverPool.getInstance().lease(browser)
+                : DriverFactory.createDriver(browser);
+        DriverManager.setDriver(driver);
+
+        // Navigate to the specified URL
+        driver.get(prop.getProperty("url2")); // Load the URL from properties file
+        logger.info("Navigated to URL: " + prop.getProperty("url2"));
+    }
+
+    /**
+     * Checks whether sessions should be leased from the shared DriverPool instead of launched per class.
+     *
+     * @return true if "driverPool.enabled" is set in config.properties
+     */
+    boolean isPoolEnabled() {
+        if (!Boolean.parseBoolean(prop.getProperty("driverPool.enabled", "false"))) {
+            return false;
+        }
+        DriverPool.getInstance().setTargetSize(Integer.parseInt(prop.getProperty("driverPool.size", "1")));
+        return true;
+    }
+
+    /**
+     * Splits a comma-separated configuration value into trimmed, non-empty entries.
+     *
+     * @param value The configuration value, may be null
+     * @return the entries
+     */
+    static List<String> splitList(String value) {
+        List<String> entries = new ArrayList<>();
+        if (value != null) {
+            for (String entry : value.split(",")) {
+                if (!entry.isBlank()) {
+                    entries.add(entry.trim());
+                }
+            }
+        }
+        return entries;
+    }
+
     /**
      * Teardown method that closes the browser after the test execution.
      */
     @AfterClass(groups = {"Master", "Sanity", "Regression", "Monkey", "Gorilla", "Smoke"})
     public void tearDown() {
-        if (driver != null) {
-            driver.close(); // Close the browser if the driver is not null
-            logger.info("Closed the browser.");
+        if (DriverManager.hasDriver()) {
+            if (isPoolEnabled()) {
+                DriverPool.getInstance().release(browser, DriverManager.releaseDriver()); // Hand the session back for reuse
+                logger.info("Returned the browser to the driver pool.");
+            } else {
+                DriverManager.quitDriver(); // Quit the browser bound to this thread
+                logger.info("Closed the browser.");
+            }
         } else {
             logger.warn("Driver is null; unable to close the browser."); // Log a warning if the driver is null
         }
     }
 
+    /**
+     * Quits any sessions still alive at the end of the suite, such as those started
+     * on extra worker threads when running with parallel="methods".
+     * Buffered Excel results are written first. With perf.gate=fail the suite fails if any
+     * duration got slower than its baseline.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void quitAllDrivers() {
+        ExcelResultWriter.flushAll(); // Buffered data-driven results are written once, at suite end
+        DriverManager.quitAll();
+        DriverPool pool = DriverPool.getInstance();
+        LogManager.getLogger(getClass()).info("Driver pool stats: " + pool.stats());
+        LogManager.getLogger(getClass()).info("Browser launch times: " + DriverFactory.launchStats());
+        LogManager.getLogger(getClass()).info("Network mode: " + NetworkMode.summary());
+        LogManager.getLogger(getClass()).info("Test data: " + TestDataFactory.summary());
+        LogManager.getLogger(getClass()).info("Excel loads: " + ExcelReader.stats());
+        LogManager.getLogger(getClass()).info("Screenshots: " + ScreenshotStore.stats());
+        LogManager.getLogger(getClass()).info("Command latency: " + CommandTimings.summary());
+        LogManager.getLogger(getClass()).info("Slowest commands: " + CommandTimings.slowest(10));
+        LogManager.getLogger(getClass()).info("Element cache: " + ElementCache.stats());
+        LogManager.getLogger(getClass()).info("Page probes: " + PageProbe.stats());
+        LogManager.getLogger(getClass()).info("Page load timings: " + PageTimings.summary());
+        LogManager.getLogger(getClass()).info("Form fill times: " + FormFill.summary());
+        LogManager.getLogger(getClass()).info("Wait times (total " + WaitStats.totalMillis() + " ms): " + WaitStats.summary());
+        LogManager.getLogger(getClass()).info("Time saved by fast absence checks: " + WaitStats.savedSummary());
+        pool.shutdown();
+
+        List<String> slower = PerfHistory.forSuite().regressions();
+        if (!slower.isEmpty()) {
+            LogManager.getLogger(getClass()).warn("Slower than the performance baseline: " + slower);
+            if (PerfHistory.forSuite().gate() == PerfHistory.Gate.FAIL) {
+                Assert.fail("Slower than the performance baseline: " + slower);
+            }
+        }
+    }
+
     /**
      * Generates a random string of the specified length using alphabetic characters.
+     * Values are not guaranteed unique; use TestDataFactory for registrable customer data.
      *
      * @param length The length of the random string to generate
      * @return A random string of the specified length
@@ -116,11 +268,9 @@ public class Base {
     public String randomString(int length) {
         StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            sb.append(ALPHABET.charAt(RANDOM.nextInt(ALPHABET.length()))); // Append random characters to the string
+            sb.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length()))); // Append random characters to the string
         }
-        String randomStr = sb.toString();
-        logger.debug("Generated random string: " + randomStr); // Log the generated string
-        return randomStr;
+        return sb.toString();
     }
 
     /**
@@ -132,11 +282,9 @@ public class Base {
     public String randomNumber(int length) {
         StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            sb.append(NUMERIC.charAt(RANDOM.nextInt(NUMERIC.length()))); // Append random digits to the string
+            sb.append(NUMERIC.charAt(ThreadLocalRandom.current().nextInt(NUMERIC.length()))); // Append random digits to the string
         }
-        String randomNum = sb.toString();
-        logger.debug("Generated random number: " + randomNum); // Log the generated number
-        return randomNum;
+        return sb.toString();
     }
 
     /**
@@ -146,41 +294,27 @@ public class Base {
      * @return A random alphanumeric string
      */
     public String randomAlphaNumeric() {
-        String randomAlphanumeric = randomString(3) + "@" + randomNumber(3); // Combine random string and number
-        logger.debug("Generated random alphanumeric: " + randomAlphanumeric); // Log the generated alphanumeric string
-        return randomAlphanumeric;
+        return randomString(3) + "@" + randomNumber(3); // Combine random string and number
     }
 
     /**
      * Captures a screenshot of the current browser window.
-     * The screenshot is saved in the specified directory with a timestamp.
+     * Only the image bytes are taken on the calling thread; ScreenshotStore writes them to the
+     * screenshots directory in the background, with a timestamp and content hash in the name.
      *
      * @param tname The name of the test (used for the screenshot file name)
-     * @return The file path of the saved screenshot
-     * @throws IOException If there is an error saving the screenshot
+     * @return A future completing with the path of the saved screenshot, or with null if it was not saved
      */
-    public String captureScreen(String tname) throws IOException {
+    public CompletableFuture<Path> captureScreen(String tname) {
         // Check if driver is null
+        WebDriver driver = DriverManager.getDriver();
         if (driver == null) {
-            logger.error("WebDriver is not initialized. Cannot capture screenshot.");
-            return null;
-        }
-        // Create a timestamp for the screenshot filename
-        String timeStamp = new SimpleDateFormat("yyyyMMddhhmmss").format(new Date());
-
-        // Capture the screenshot and save it as a file
-        TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-        File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-        String screenshotsDir = System.getProperty("user.dir") + "\\screenshots\\";
-        File dir = new File(screenshotsDir);
-        if (!dir.exists()) {
-            dir.mkdirs();
+            LogManager.getLogger(getClass()).error("WebDriver is not initialized. Cannot capture screenshot.");
+            return CompletableFuture.completedFuture(null);
         }
 
-        String targetFilePath = screenshotsDir + tname + "_" + timeStamp + ".png";
-        File targetFile = new File(targetFilePath);
-        sourceFile.renameTo(targetFile); // Rename the captured file to the target file name
-
-        return targetFilePath; // Return the file path of the saved screenshot
+        // Capture the screenshot bytes and hand them to the background writer
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return ScreenshotStore.store(tname, png);
     }
 }
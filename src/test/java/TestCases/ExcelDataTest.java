@@ -0,0 +1,229 @@
+package TestCases;
+
+import Utilities.CompiledSheet;
+import Utilities.DataProviders;
+import Utilities.ExcelReader;
+import Utilities.ExcelTable;
+import Utilities.ExcelUtility;
+import Utilities.Shard;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for verifying the Excel data layer against workbooks generated on the fly,
+ * so it runs offline without a browser.
+ */
+public class ExcelDataTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    Path dir;
+    Path cacheDir; // Compiled sheets of this class's workbooks, apart from the shared cache
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("excel-data");
+        cacheDir = dir.resolve("compiled");
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Reads formatted values, including gaps left by empty rows and cells.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void readsSheetInOnePass() throws IOException {
+        Path file = dir.resolve("login.xlsx");
+        writeWorkbook(file, "Valid");
+
+        ExcelTable table = ExcelReader.read(file.toString(), "Sheet1", cacheDir);
+        Assert.assertEquals(table.header(), List.of("email", "password", "res"));
+        Assert.assertEquals(table.lastRowNum(), 3, "Last row number does not match the sheet");
+        Assert.assertEquals(table.cell(1, 0), "a@b.com");
+        Assert.assertEquals(table.cell(1, 1), "1234", "Numeric cell not formatted as displayed");
+        Assert.assertEquals(table.cell(2, 2), "", "Missing row should read as empty");
+        Assert.assertEquals(table.cell(3, 0), "", "Missing cell should read as empty");
+        Assert.assertEquals(table.cell(3, 2), "Invalid");
+        logger.info("Read " + table.rowCount() + " rows");
+    }
+
+    /**
+     * Serves repeated reads from the cache and reloads once the file changes.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void cachesUntilFileChanges() throws IOException {
+        Path file = dir.resolve("cached.xlsx");
+        writeWorkbook(file, "Valid");
+
+        ExcelTable first = ExcelReader.read(file.toString(), "Sheet1", cacheDir);
+        Assert.assertSame(ExcelReader.read(file.toString(), "Sheet1", cacheDir), first, "Unchanged file was parsed again");
+
+        writeWorkbook(file, "Expired");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        ExcelTable second = ExcelReader.read(file.toString(), "Sheet1", cacheDir);
+        Assert.assertNotSame(second, first, "Changed file was served from the cache");
+        Assert.assertEquals(second.cell(1, 2), "Expired");
+    }
+
+    /**
+     * Compiles the sheet on first read, serves later reads from the compiled copy, and
+     * recompiles once the workbook's content changes.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void readsCompiledCopyUntilContentChanges() throws IOException {
+        Path file = dir.resolve("compiled.xlsx");
+        writeWorkbook(file, "Valid");
+
+        ExcelTable parsed = ExcelReader.read(file.toString(), "Sheet1", cacheDir);
+        Assert.assertTrue(Files.exists(CompiledSheet.location(cacheDir, file, "Sheet1")), "Sheet was not compiled");
+
+        ExcelReader.clear();
+        CompiledSheet compiled = CompiledSheet.open(cacheDir, file, "Sheet1", CompiledSheet.hash(file));
+        Assert.assertNotNull(compiled, "Compiled copy was rejected for unchanged content");
+        Assert.assertEquals(compiled.toTable().rows(), parsed.rows(), "Compiled copy does not match the workbook");
+        Assert.assertEquals(ExcelReader.read(file.toString(), "Sheet1", cacheDir).rows(), parsed.rows());
+
+        writeWorkbook(file, "Expired");
+        Assert.assertNull(CompiledSheet.open(cacheDir, file, "Sheet1", CompiledSheet.hash(file)), "Stale compiled copy was accepted");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        Assert.assertEquals(ExcelReader.read(file.toString(), "Sheet1", cacheDir).cell(1, 2), "Expired");
+        Assert.assertNotNull(CompiledSheet.open(cacheDir, file, "Sheet1", CompiledSheet.hash(file)), "Changed workbook was not recompiled");
+        logger.info("Excel loads: " + ExcelReader.stats());
+    }
+
+    /**
+     * Streams rows lazily, maps columns by header name and skips blank rows, both while
+     * parsing and from the cache.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void streamsRowsByHeaderName() throws IOException {
+        Path file = dir.resolve("streamed.xlsx");
+        writeWorkbook(file, "Valid");
+
+        for (int pass = 0; pass < 2; pass++) {
+            List<Object[]> rows = new ArrayList<>();
+            DataProviders.rows(file.toString(), "Sheet1", Shard.ALL, cacheDir, "RES", " email ").forEachRemaining(rows::add);
+            Assert.assertEquals(rows.size(), 2, "Blank row was not skipped");
+            Assert.assertEquals(rows.get(0), new Object[]{"Valid", "a@b.com"});
+            Assert.assertEquals(rows.get(1), new Object[]{"Invalid", ""});
+        }
+
+        try {
+            DataProviders.rows(file.toString(), "Sheet1", Shard.ALL, cacheDir, "username");
+            Assert.fail("Missing column was not reported");
+        } catch (IllegalArgumentException e) {
+            logger.info("Missing column reported: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits data rows into balanced, contiguous shards that together cover every row once.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void shardsCoverEveryRowOnce() throws IOException {
+        Path file = dir.resolve("sharded.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            sheet.createRow(0).createCell(0).setCellValue("username");
+            for (int r = 1; r <= 11; r++) {
+                sheet.createRow(r).createCell(0).setCellValue("user" + r);
+            }
+            workbook.write(out);
+        }
+
+        List<Object> seen = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            ExcelReader.clear(); // Every shard after the first maps the compiled copy
+            List<Object[]> rows = new ArrayList<>();
+            DataProviders.rows(file.toString(), "Sheet1", new Shard(index, 3), cacheDir, "username").forEachRemaining(rows::add);
+            Assert.assertTrue(rows.size() == 3 || rows.size() == 4, "Shard " + index + " is unbalanced: " + rows.size());
+            rows.forEach(row -> seen.add(row[0]));
+        }
+        List<Object> expected = new ArrayList<>();
+        for (int r = 1; r <= 11; r++) {
+            expected.add("user" + r);
+        }
+        Assert.assertEquals(seen, expected, "Shards do not cover every row exactly once");
+    }
+
+    /**
+     * Buffers results from parallel threads and writes them in one flush with shared styles.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void writesBufferedResultsOnce() throws Exception {
+        Path file = dir.resolve("results.xlsx");
+        writeWorkbook(file, "Valid");
+        ExcelUtility xl = new ExcelUtility(file.toString(), cacheDir);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            int row = i;
+            writes.add(pool.submit(() -> {
+                xl.setCellData("Results", row, 0, "row " + row);
+                if (row % 2 == 0) {
+                    xl.fillGreenColor("Results", row, 0);
+                } else {
+                    xl.fillRedColor("Results", row, 0);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> write : writes) {
+            write.get();
+        }
+        pool.shutdown();
+        Assert.assertEquals(ExcelReader.read(file.toString(), "Sheet1", cacheDir).cell(1, 2), "Valid", "Results were written before the flush");
+
+        xl.flush();
+        Assert.assertEquals(xl.getCellData("Results", 200, 0), "row 200");
+        try (InputStream in = Files.newInputStream(file); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Assert.assertEquals(workbook.getSheet("Results").getRow(2).getCell(0).getCellStyle().getFillForegroundColor(),
+                    IndexedColors.GREEN.getIndex());
+            Assert.assertEquals(workbook.getNumCellStyles(), 3, "Pass/fail styles were not shared");
+        }
+    }
+
+    private static void writeWorkbook(Path file, String firstResult) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            XSSFRow header = sheet.createRow(0);
+            header.createCell(0).setCellValue("email");
+            header.createCell(1).setCellValue("password");
+            header.createCell(2).setCellValue("res");
+            XSSFRow row = sheet.createRow(1);
+            row.createCell(0).setCellValue("a@b.com");
+            row.createCell(1).setCellValue(1234);
+            row.createCell(2).setCellValue(firstResult);
+            // Row 2 left out on purpose, and column 0 of row 3
+            XSSFRow last = sheet.createRow(3);
+            last.createCell(1).setCellValue("secret");
+            last.createCell(2).setCellValue("Invalid");
+            workbook.write(out);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package TestCases;
+
+import Support.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test class for verifying LatencyHistogram's buckets and percentiles against known values,
+ * so it runs offline without a browser.
+ */
+public class LatencyHistogramTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final double TOLERANCE = 1.0 / 32; // One sub-bucket above 64 micros
+
+    /**
+     * Durations below 64 microseconds each get their own bucket, so their percentiles are exact.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void recordsSmallDurationsExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 63; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+        for (int rank = 1; rank <= 63; rank++) {
+            double percentile = (rank - 0.5) * 100 / 63; // Mid-rank, clear of rounding at the rank's edge
+            Assert.assertEquals(histogram.percentileMillis(percentile), rank / 1_000.0, 1e-9, "Rank " + rank);
+        }
+        Assert.assertEquals(histogram.count(), 63);
+        Assert.assertEquals(histogram.meanMillis(), 0.032, 1e-9);
+
+        LatencyHistogram clamped = new LatencyHistogram();
+        clamped.record(-5_000); // A clock step backwards counts as zero
+        Assert.assertEquals(clamped.maxMillis(), 0.0);
+        Assert.assertEquals(clamped.percentileMillis(50), 0.0);
+        Assert.assertEquals(new LatencyHistogram().percentileMillis(95), 0.0, "An empty histogram reports zero");
+    }
+
+    /**
+     * Above 64 microseconds a bucket spans 1/32 of its power of two: 64 and 65 share one, 66 starts
+     * the next, and 127 and 128 fall on either side of a power-of-two edge.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void splitsBucketsAtTheirEdges() {
+        Assert.assertEquals(median(64, 65), 0.065, 1e-9, "64 and 65 micros should share a bucket");
+        Assert.assertEquals(median(64, 66), 0.065, 1e-9, "66 micros should start the next bucket");
+        Assert.assertEquals(median(127, 128), 0.127, 1e-9, "127 micros should end its power of two");
+        Assert.assertEquals(median(128, 131), 0.131, 1e-9, "128 and 131 micros should share a bucket");
+        Assert.assertEquals(median(128, 132), 0.131, 1e-9, "132 micros should start the next bucket");
+    }
+
+    /**
+     * A percentile never reports more than the largest recorded duration, even when that falls
+     * low in its bucket.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void clampsPercentilesToTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_000); // 1000 micros, in the bucket up to 1007
+        Assert.assertEquals(histogram.percentileMillis(50), 1.0);
+        Assert.assertEquals(histogram.percentileMillis(100), 1.0);
+        Assert.assertEquals(histogram.maxMillis(), 1.0);
+
+        histogram.record(40_000_000_000L); // 40 s
+        Assert.assertEquals(histogram.percentileMillis(100), 40_000.0, "The largest duration should be exact");
+        Assert.assertEquals(histogram.percentileMillis(50), 1.007, 1e-9, "Below the maximum, the bucket's upper bound is reported");
+    }
+
+    /**
+     * Percentiles of a uniform and a long-tailed distribution are within one sub-bucket (about 3%)
+     * above the true values.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void percentilesAreWithinThreePercent() {
+        long[] uniform = new long[100_000];
+        for (int i = 0; i < uniform.length; i++) {
+            uniform[i] = (i + 1) * 1_000L; // 1 micro to 100 ms
+        }
+        assertPercentiles("uniform", uniform);
+
+        Random random = new Random(42);
+        long[] tail = new long[50_000];
+        for (int i = 0; i < tail.length; i++) {
+            tail[i] = (long) (Math.exp(random.nextGaussian() * 1.5 + 12) * 1_000); // Median about 160 ms
+        }
+        assertPercentiles("long-tailed", tail);
+    }
+
+    /**
+     * Adding histograms gives the same figures as recording every duration in one.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void addsHistogramsTogether() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long nanos = (long) (random.nextDouble() * 5_000_000_000L);
+            (i % 3 == 0 ? first : second).record(nanos);
+            all.record(nanos);
+        }
+        first.add(second);
+
+        Assert.assertEquals(first.count(), all.count());
+        Assert.assertEquals(first.meanMillis(), all.meanMillis(), 1e-9);
+        Assert.assertEquals(first.maxMillis(), all.maxMillis());
+        for (double percentile : new double[]{1, 50, 90, 95, 99, 99.9, 100}) {
+            Assert.assertEquals(first.percentileMillis(percentile), all.percentileMillis(percentile), "p" + percentile);
+        }
+    }
+
+    private static double median(long lowerMicros, long upperMicros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(lowerMicros * 1_000);
+        histogram.record(upperMicros * 1_000);
+        return histogram.percentileMillis(50);
+    }
+
+    private void assertPercentiles(String name, long[] nanos) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : nanos) {
+            histogram.record(value);
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        for (double percentile : new double[]{50, 90, 95, 99, 99.9}) {
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            double expected = sorted[rank - 1] / 1_000 / 1_000.0; // Whole micros, as recorded
+            double actual = histogram.percentileMillis(percentile);
+            logger.info(String.format("%s p%s: expected %.3f ms, got %.3f ms", name, percentile, expected, actual));
+            Assert.assertTrue(actual >= expected, name + " p" + percentile + " below the true value: " + actual);
+            Assert.assertTrue(actual <= expected * (1 + TOLERANCE), name + " p" + percentile + " more than 3% high: "
+                    + actual + " vs " + expected);
+        }
+    }
+}
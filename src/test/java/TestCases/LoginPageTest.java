@@ -23,7 +23,7 @@ public class LoginPageTest extends Base {
 
         try {
             // Initialize the HomePage object to access home page elements
-            HomePage hp = new HomePage(driver);
+            HomePage hp = new HomePage();
             logger.info("Clicking on My Account link...");
             hp.clickMyAccount(); // Click on the 'My Account' link
             logger.info("Clicked on MyAccount Link");
@@ -33,7 +33,7 @@ public class LoginPageTest extends Base {
             logger.info("Clicked on Login Link");
 
             // Initialize the LoginPage object to access login page elements
-            LoginPage lp = new LoginPage(driver);
+            LoginPage lp = new LoginPage();
             logger.info("Providing customer email and password");
 
             // Set the email and password from properties file
@@ -47,7 +47,7 @@ public class LoginPageTest extends Base {
             logger.info("Clicked on Login button");
 
             // Initialize the MyAccountPage object to verify if the login was successful
-            MyAccountPage mp = new MyAccountPage(driver);
+            MyAccountPage mp = new MyAccountPage();
             logger.info("Checking if My Account page exists...");
             Boolean targetPage = mp.isMyAccountPageExists(); // Check if the 'My Account' page is displayed
 
@@ -5,6 +5,7 @@ import PageObjects.LoginPage;
 import PageObjects.MyAccountPage;
 import TestBase.Base;
 import Utilities.DataProviders;
+import Utilities.ExtentReportManager;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -26,21 +27,20 @@ public class LoginTestDDT extends Base {
     @Test(dataProvider = "loginData", dataProviderClass = DataProviders.class, groups = {"Monkey", "Master"})
     public void verify_loginDDT(String email, String password, String exp) {
         logger.info("**** Starting LoginPageDDT test with email: " + email + " ****"); // Log the start of the test
+        ExtentReportManager.step("Credentials: " + email + ", expected " + exp); // Shown in this row's report entry
 
         try {
             // Initialize the HomePage object to access home page elements
-            HomePage hp = new HomePage(driver);
+            HomePage hp = new HomePage();
             hp.clickMyAccount(); // Click on the 'My Account' link
             hp.clickLogin(); // Click on the 'Login' link
 
             // Initialize the LoginPage object to access login page elements
-            LoginPage lp = new LoginPage(driver);
-            lp.setEmail(email); // Set the email for login
-            lp.setPwd(password); // Set the password for login
-            lp.clickLogin(); // Click on the 'Login' button
+            LoginPage lp = new LoginPage();
+            lp.login(email, password); // Fill email and password and click the 'Login' button
 
             // Initialize the MyAccountPage object to verify if the login was successful
-            MyAccountPage mp = new MyAccountPage(driver);
+            MyAccountPage mp = new MyAccountPage();
             boolean targetPage = mp.isMyAccountPageExists(); // Check if the 'My Account' page is displayed
 
             // Validate login results based on expected outcome
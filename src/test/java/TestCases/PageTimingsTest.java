@@ -0,0 +1,122 @@
+package TestCases;
+
+import Drivers.DriverFactory;
+import Support.PageBudget;
+import Support.PageTimings;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Test class for verifying that PageTimings records each document once, for the page type whose
+ * route it is, and that PageBudget reports the limits a load exceeds. It runs offline against a
+ * local stand-in storefront with the in-process HtmlUnit backend.
+ */
+public class PageTimingsTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    StandInServer server;
+    WebDriver driver;
+    String baseUrl;
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        server = StandInServer.start("Stand-in storefront", this::handle);
+        baseUrl = server.baseUrl();
+
+        driver = DriverFactory.createDriver("htmlunit");
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * A document is recorded by the page type of its route only, once: a page object of another
+     * route built on it records nothing, and the next document of the route is recorded again.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void recordsEachDocumentForItsRouteOnce() {
+        logger.info("Starting recordsEachDocumentForItsRouteOnce...");
+        PageBudget login = PageBudget.forRoute("account/login");
+        PageBudget home = PageBudget.forRoute("common/home");
+
+        driver.get(baseUrl + "index.php?route=account/login");
+        Assert.assertEquals(PageTimings.read(driver).page(), "", "No page object has recorded the document yet");
+        Assert.assertFalse(PageTimings.capture(driver, "PageTimingsTestHome", home),
+                "A home page object must not record the login page's load");
+        Assert.assertEquals(PageTimings.read(driver).page(), "", "The login page's load was claimed by another route");
+
+        Assert.assertTrue(PageTimings.capture(driver, "PageTimingsTestLogin", login), "A loaded document should be recorded");
+        Assert.assertEquals(PageTimings.read(driver).page(), "PageTimingsTestLogin");
+        Assert.assertTrue(PageTimings.capture(driver, "PageTimingsTestLogin", login), "Nothing left to record");
+        Assert.assertTrue(PageTimings.summary().contains("PageTimingsTestLogin=loads=1,"), PageTimings.summary());
+
+        driver.get(baseUrl);
+        Assert.assertTrue(PageTimings.capture(driver, "PageTimingsTestHome", home), "The home page has no route parameter");
+        driver.get(baseUrl + "index.php?route=account/login&redirect=1");
+        Assert.assertTrue(PageTimings.capture(driver, "PageTimingsTestLogin", login));
+        Assert.assertTrue(PageTimings.summary().contains("PageTimingsTestHome=loads=1,"), PageTimings.summary());
+        Assert.assertTrue(PageTimings.summary().contains("PageTimingsTestLogin=loads=2,"), PageTimings.summary());
+        Assert.assertTrue(PageTimings.capture(driver, "PageTimingsTestUnrouted", PageBudget.define()),
+                "A page without a route has nothing to record");
+        Assert.assertFalse(PageTimings.summary().contains("PageTimingsTestUnrouted"), PageTimings.summary());
+        logger.info("recordsEachDocumentForItsRouteOnce completed successfully.");
+    }
+
+    /**
+     * A live page load is within a generous budget and over one no load can meet; read() neither
+     * records nor claims the document.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void checksLiveLoadAgainstBudget() {
+        driver.get(baseUrl + "index.php?route=product/search");
+        PageTimings.Timing timing = PageTimings.read(driver);
+        Assert.assertNotNull(timing, "The loaded document should have a timing");
+        Assert.assertEquals(timing.url(), baseUrl + "index.php?route=product/search");
+        Assert.assertTrue(timing.loadMs() >= timing.domContentLoadedMs() && timing.domContentLoadedMs() >= timing.ttfbMs(),
+                "Timings out of order: " + timing);
+        logger.info("Stand-in page load: " + timing);
+
+        Assert.assertEquals(PageBudget.define().ttfb(60_000).load(60_000).resources(100).violations(timing), List.of());
+        List<String> violations = PageBudget.define().load(-1).violations(timing);
+        Assert.assertEquals(violations.size(), 1, "Every load exceeds a negative limit: " + violations);
+        Assert.assertTrue(violations.get(0).startsWith("load "), violations.get(0));
+        Assert.assertEquals(PageTimings.read(driver).page(), "", "read() should not claim the document");
+    }
+
+    /**
+     * Each exceeded limit is reported with its unit; limits that are met exactly or not set are not.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void reportsEveryExceededLimit() {
+        PageTimings.Timing timing = new PageTimings.Timing("HomePage", baseUrl, 1500, 3500, 9000, 130, 5L * 1024 * 1024);
+        PageBudget budget = PageBudget.define().ttfb(1500).domContentLoaded(3000).load(8000).resources(120);
+        Assert.assertEquals(budget.violations(timing), List.of(
+                "DOMContentLoaded 3500 ms > 3000 ms",
+                "load 9000 ms > 8000 ms",
+                "resources 130 > 120"));
+        Assert.assertEquals(budget.transferKb(4096).violations(timing).get(3), "transfer 5120 KB > 4096 KB");
+    }
+
+    private void handle(StandInServer.Request request) throws IOException {
+        if (request.path().endsWith(".js")) {
+            request.respond(200, "text/javascript", "document.title = 'Loaded';");
+            return;
+        }
+        request.html("<html><head><script src='/app.js'></script></head><body><h1>" + request.route() + "</h1></body></html>");
+    }
+}
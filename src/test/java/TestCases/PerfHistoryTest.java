@@ -0,0 +1,81 @@
+package TestCases;
+
+import Utilities.PerfHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for verifying the cross-run performance history and its baseline comparison
+ * against its own history in a temporary directory, so it runs offline without a browser and
+ * leaves the suite's history and gate alone.
+ */
+public class PerfHistoryTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    Path dir;
+    PerfHistory history;
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("perf-history");
+        history = new PerfHistory(dir, 10, 3, 20, 250, "flag");
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Flags a test once it is slower than its p95 baseline by more than the tolerance,
+     * but not metrics without enough history or within the tolerance.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void flagsTestsSlowerThanBaseline() {
+        logger.info("Starting flagsTestsSlowerThanBaseline...");
+        try {
+            for (double millis : new double[]{1000, 1100, 1050}) {
+                List<PerfHistory.Trend> trends = history.record("unit",
+                        Map.of("AddToCartPageTest.clickProductToCart", millis, "LoginTestDDT.verify_loginDDT", 2000.0));
+                Assert.assertTrue(trends.stream().noneMatch(PerfHistory.Trend::regressed), "No baseline yet, nothing may regress");
+            }
+
+            List<PerfHistory.Trend> trends = history.record("unit", Map.of(
+                    "AddToCartPageTest.clickProductToCart", 1600.0, // 45% over the 1100 ms baseline
+                    "LoginTestDDT.verify_loginDDT", 2300.0,         // 15% over, within the tolerance
+                    "SearchPageTest.searchProduct", 9000.0));        // No history yet
+
+            Assert.assertEquals(trends.get(0).metric(), "AddToCartPageTest.clickProductToCart", "Regressions come first");
+            Assert.assertTrue(trends.get(0).regressed(), "A 45% slower test should be flagged");
+            Assert.assertEquals(trends.get(0).baseline(), 1100.0, "The baseline should be the p95 of past runs");
+            Assert.assertEquals(trends.get(0).recent(), List.of(1000.0, 1100.0, 1050.0));
+            Assert.assertEquals(trends.stream().filter(PerfHistory.Trend::regressed).count(), 1L);
+            Assert.assertTrue(history.regressions().stream().anyMatch(line -> line.contains("clickProductToCart")));
+            Assert.assertTrue(PerfHistory.forSuite().regressions().stream().noneMatch(line -> line.startsWith("unit ")),
+                    "The suite's history should not see this test's regressions");
+
+            List<List<String>> table = history.table(trends);
+            Assert.assertEquals(table.size(), 4, "Header plus one row per metric");
+            Assert.assertEquals(table.get(1).get(6), "SLOWER");
+            Assert.assertEquals(table.get(3).get(6), "NEW");
+            Assert.assertEquals(Files.readAllLines(dir.resolve("unit.jsonl")).size(), 4, "Every run should be kept");
+
+            logger.info("flagsTestsSlowerThanBaseline completed successfully.");
+        } catch (IOException e) {
+            logger.error("flagsTestsSlowerThanBaseline failed: " + e.getMessage());
+            Assert.fail("Unexpected I/O error: " + e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package TestCases;
 import PageObjects.HomePage;
 import PageObjects.RegistrationPage;
 import TestBase.Base;
+import Utilities.TestDataFactory;
+import Utilities.TestDataFactory.Customer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -22,7 +24,7 @@ public class RegistrationPageTest extends Base {
 
         try {
             // Initialize the HomePage object to access home page elements
-            HomePage hp = new HomePage(driver);
+            HomePage hp = new HomePage();
             logger.info("Clicking on My Account link...");
             hp.clickMyAccount(); // Click on the 'My Account' link
             logger.info("Clicked on MyAccount Link");
@@ -32,36 +34,21 @@ public class RegistrationPageTest extends Base {
             logger.info("Clicked on Register Link");
 
             // Initialize the RegistrationPage object to access registration page elements
-            RegistrationPage rp = new RegistrationPage(driver);
+            RegistrationPage rp = new RegistrationPage();
             logger.info("Providing customer details...");
 
-            // Generate and set random user details for registration
-            String firstName = randomString(5).toUpperCase(); // Generate a random first name
-            logger.info("First Name: {}", firstName);
-            rp.setTxtFirstName(firstName); // Set the first name in the registration form
+            // Generate a unique customer; emails never collide across threads, shards or runs
+            Customer customer = TestDataFactory.getInstance().nextCustomer();
 
-            String lastName = randomString(5).toUpperCase(); // Generate a random last name
-            logger.info("Last Name: {}", lastName);
-            rp.setTxtLastName(lastName); // Set the last name in the registration form
+            logger.info("First Name: {}", customer.firstName());
+            logger.info("Last Name: {}", customer.lastName());
+            logger.info("Email: {}", customer.email());
+            logger.info("Telephone: {}", customer.telephone());
+            logger.info("Password: {}", customer.password());
 
-            String email = randomString(5) + "@gmail.com"; // Generate a random email address
-            logger.info("Email: {}", email);
-            rp.setEmail(email); // Set the email in the registration form
-
-            String telephone = randomNumber(10); // Generate a random telephone number
-            logger.info("Telephone: {}", telephone);
-            rp.setTelephone(telephone); // Set the telephone number in the registration form
-
-            String password = randomAlphaNumeric(); // Generate a random password
-            logger.info("Password: {}", password);
-            rp.setTxtPassword(password); // Set the password in the registration form
-            rp.setConfirmPassword(password); // Confirm the password
-
-            // Select newsletter subscription and accept terms and conditions
-            logger.info("Selecting 'Yes' for newsletter subscription and accepting terms and conditions...");
-            rp.setRadioYes(); // Select the 'Yes' radio button for the newsletter
-            rp.setChkPolicy(); // Check the terms and conditions checkbox
-            rp.setBtnContinue(); // Click the 'Continue' button
+            // Fill the form, select the newsletter, accept terms and conditions, then click 'Continue'
+            logger.info("Filling the registration form, selecting 'Yes' for newsletter subscription and accepting terms and conditions...");
+            rp.register(customer.firstName(), customer.lastName(), customer.email(), customer.telephone(), customer.password());
             logger.info("Clicked on Continue button");
 
             // Validate the confirmation message after successful registration
@@ -0,0 +1,144 @@
+package TestCases;
+
+import Utilities.ExtentReportManager;
+import Utilities.ResultJournal;
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for verifying that the result journal keeps every test's start, end and failures under
+ * load, and that the HTML report is rebuilt from it, including a journal whose last line was cut off
+ * by a crash. It writes to a temporary directory, so it runs offline without a browser.
+ */
+public class ResultJournalTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    Path dir;
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("result-journal");
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Journals a passing and a failing test, appends a truncated line as a crash would, and builds
+     * the report: both tests and the failure's details are in it and the broken line is skipped.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void buildsReportFromJournalWithTruncatedLastLine() throws IOException {
+        logger.info("Starting buildsReportFromJournalWithTruncatedLastLine...");
+        Path file = dir.resolve("round-trip.jsonl");
+        try (ResultJournal journal = ResultJournal.open(file)) {
+            long now = System.currentTimeMillis();
+            journal.info("Browser", "htmlunit");
+            journal.start(1, "LoginPageTest - verify_login", new String[]{"Sanity"}, "main", now);
+            journal.step(1, Status.INFO.name(), "Clicked Login");
+            journal.step(1, Status.PASS.name(), "Logged in");
+            journal.end(1, Status.PASS.name(), 120);
+            journal.start(2, "SearchPageTest - searchProduct", new String[]{"Master"}, "main", now);
+            journal.step(2, Status.FAIL.name(), "Expected 3 results but found 0");
+            journal.end(2, Status.FAIL.name(), 80);
+        }
+        Files.writeString(file, "{\"event\":\"step\",\"id\":2,\"status\":\"IN", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        List<String> events = new ArrayList<>();
+        ResultJournal.read(file, event -> events.add((String) event.get("event")));
+        Assert.assertEquals(events, List.of("info", "start", "step", "step", "end", "start", "step", "end"),
+                "The truncated line should be skipped and nothing else");
+
+        Path html = dir.resolve("round-trip.html");
+        ExtentReports extent = ExtentReportManager.buildReport(file, html);
+        Assert.assertEquals(extent.getReport().getTestList().size(), 2, "Both tests should be in the report");
+        Assert.assertEquals(extent.getReport().getStatus(), Status.FAIL, "The failure should fail the report");
+
+        String report = Files.readString(html);
+        Assert.assertTrue(report.contains("LoginPageTest - verify_login"), "Passing test missing from the report");
+        Assert.assertTrue(report.contains("SearchPageTest - searchProduct"), "Failing test missing from the report");
+        Assert.assertTrue(report.contains("Expected 3 results but found 0"), "Failure details missing from the report");
+        logger.info("buildsReportFromJournalWithTruncatedLastLine completed successfully.");
+    }
+
+    /**
+     * Floods a journal with a tiny queue from several threads: INFO steps may be shed, but every
+     * start, end and FAIL step is written.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void keepsStartEndAndFailuresWhenQueueIsFull() throws Exception {
+        logger.info("Starting keepsStartEndAndFailuresWhenQueueIsFull...");
+        Path file = dir.resolve("flood.jsonl");
+        int threads = 8;
+        int testsPerThread = 200;
+        AtomicLong ids = new AtomicLong();
+
+        ResultJournal journal = ResultJournal.open(file, 4);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < testsPerThread; i++) {
+                        long id = ids.incrementAndGet();
+                        journal.start(id, "test " + id, new String[]{"Master"}, Thread.currentThread().getName(),
+                                System.currentTimeMillis());
+                        for (int step = 0; step < 20; step++) {
+                            journal.step(id, Status.INFO.name(), "step " + step);
+                        }
+                        if (id % 2 == 1) {
+                            journal.step(id, Status.FAIL.name(), "failure " + id);
+                        }
+                        journal.end(id, id % 2 == 1 ? Status.FAIL.name() : Status.PASS.name(), 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+            journal.close();
+        }
+        logger.info("Flooded journal: " + journal.stats());
+
+        Map<String, AtomicLong> counts = Map.of("start", new AtomicLong(), "end", new AtomicLong(), "FAIL", new AtomicLong());
+        ResultJournal.read(file, event -> {
+            String type = (String) event.get("event");
+            if (counts.containsKey(type)) {
+                counts.get(type).incrementAndGet();
+            } else if ("FAIL".equals(event.get("status"))) {
+                counts.get("FAIL").incrementAndGet();
+            }
+        });
+        int tests = threads * testsPerThread;
+        Assert.assertEquals(counts.get("start").get(), tests, "Start events were dropped: " + journal.stats());
+        Assert.assertEquals(counts.get("end").get(), tests, "End events were dropped: " + journal.stats());
+        Assert.assertEquals(counts.get("FAIL").get(), tests / 2, "FAIL steps were dropped: " + journal.stats());
+        Assert.assertTrue(journal.stats().contains("lost=0"), "Events were lost: " + journal.stats());
+    }
+}
@@ -15,11 +15,9 @@ public class SearchPageTest extends Base {
     /**
      * Test method to verify that a product is displayed on the Search Page.
      * It checks if the product is available when searched.
-     *
-     * @throws InterruptedException if the thread sleep is interrupted
      */
     @Test(groups = {"Gorilla", "Master"})
-    public void verifyProductDisplay() throws InterruptedException {
+    public void verifyProductDisplay() {
         logger.info("**** Starting Product Search Test ****");
 
         try {
@@ -28,7 +26,7 @@ public class SearchPageTest extends Base {
             logger.info("Product to be searched: " + productName);
 
             // Initialize HomePage object to access home page elements
-            HomePage hp = new HomePage(driver);
+            HomePage hp = new HomePage();
             logger.info("Searching for product '" + productName + "'...");
 
             // Enter the search term and press Enter
@@ -37,12 +35,12 @@ public class SearchPageTest extends Base {
             hp.clickEnter();
             logger.info("Search submitted");
 
+            // Initialize SearchPage object to access search page elements
+            SearchPage sp = new SearchPage();
+
             // Wait for the search results to load
             logger.info("Waiting for search results to load...");
-            waitForFiveSeconds();
-
-            // Initialize SearchPage object to access search page elements
-            SearchPage sp = new SearchPage(driver);
+            sp.waitForResults();
             logger.info("Verifying if the product '" + productName + "' exists in the search results");
 
             // Check if the target product is displayed
@@ -63,8 +61,4 @@ public class SearchPageTest extends Base {
             logger.info("**** Finished Product Search Test ****");
         }
     }
-
-    private void waitForFiveSeconds() throws InterruptedException {
-        Thread.sleep(5000);
-    }
 }
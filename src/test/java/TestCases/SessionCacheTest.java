@@ -0,0 +1,156 @@
+package TestCases;
+
+import Drivers.DriverFactory;
+import Utilities.SessionCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for verifying that SessionCache logs a customer in through the UI once, restores the
+ * captured session into new browsers and falls back to the UI when the server no longer accepts it.
+ * It runs offline against a local stand-in storefront with the in-process HtmlUnit backend.
+ */
+public class SessionCacheTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    StandInServer server;
+    String baseUrl;
+    final List<WebDriver> drivers = new ArrayList<>();
+
+    // Stand-in storefront state: signed-in session ids and the number of login form posts
+    final Set<String> signedIn = ConcurrentHashMap.newKeySet();
+    final AtomicInteger uiLogins = new AtomicInteger();
+
+    static final String PASSWORD = "secret1";
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        server = StandInServer.start("Stand-in storefront", this::handle);
+        baseUrl = server.baseUrl();
+    }
+
+    @AfterMethod(groups = {"Master", "Smoke"})
+    public void quitDrivers() {
+        drivers.forEach(WebDriver::quit);
+        drivers.clear();
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private WebDriver newBrowser() {
+        WebDriver driver = DriverFactory.createDriver("htmlunit");
+        drivers.add(driver);
+        return driver;
+    }
+
+    /**
+     * The first sign-in goes through the login form; a second browser gets the cached session
+     * restored and reaches My Account without posting the form again.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void restoresCachedSessionInNewBrowser() {
+        int before = uiLogins.get();
+
+        WebDriver first = newBrowser();
+        SessionCache.signIn(first, baseUrl, "restore@example.com", PASSWORD);
+        Assert.assertEquals(uiLogins.get(), before + 1, "The first sign-in should use the login form");
+        Assert.assertTrue(first.getCurrentUrl().contains("route=account/account"), "Not left on My Account: " + first.getCurrentUrl());
+
+        WebDriver second = newBrowser();
+        SessionCache.signIn(second, baseUrl, "restore@example.com", PASSWORD);
+        Assert.assertEquals(uiLogins.get(), before + 1, "The cached session should be restored without a UI login");
+        Assert.assertTrue(second.getCurrentUrl().contains("route=account/account"), "Not left on My Account: " + second.getCurrentUrl());
+    }
+
+    /**
+     * A cached session the server has dropped is detected and replaced by a fresh UI login.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void logsInAgainWhenCachedSessionExpired() {
+        int before = uiLogins.get();
+        SessionCache.signIn(newBrowser(), baseUrl, "expire@example.com", PASSWORD);
+
+        signedIn.clear(); // The server forgets every session, as after a timeout
+
+        WebDriver next = newBrowser();
+        SessionCache.signIn(next, baseUrl, "expire@example.com", PASSWORD);
+        Assert.assertEquals(uiLogins.get(), before + 2, "An expired session should fall back to the login form");
+        Assert.assertTrue(next.getCurrentUrl().contains("route=account/account"), "Not left on My Account: " + next.getCurrentUrl());
+    }
+
+    /**
+     * A login the storefront rejects fails instead of leaving the test signed out.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void failsWhenLoginIsRejected() {
+        try {
+            SessionCache.signIn(newBrowser(), baseUrl, "wrong@example.com", "not-the-password");
+            Assert.fail("A rejected login should throw");
+        } catch (IllegalStateException e) {
+            logger.info("Rejected login reported: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Minimal OpenCart stand-in: home page with the account menu, login form, account page and a session cookie.
+     */
+    private void handle(StandInServer.Request request) throws IOException {
+        String session = request.session();
+        Map<String, String> form = request.form();
+
+        switch (request.route()) {
+            case "account/login":
+                if (!form.isEmpty()) {
+                    uiLogins.incrementAndGet();
+                    if (PASSWORD.equals(form.get("password"))) {
+                        signedIn.add(session);
+                        request.redirect("account/account");
+                        return;
+                    }
+                    request.html(page("<div class='alert alert-danger'>Warning: No match for E-Mail Address and/or Password.</div>"
+                            + LOGIN_FORM));
+                    return;
+                }
+                request.html(page(LOGIN_FORM));
+                break;
+            case "account/account":
+                if (!signedIn.contains(session)) {
+                    request.redirect("account/login");
+                    return;
+                }
+                request.html(page("<h2>My Account</h2>"));
+                break;
+            default:
+                request.html(page("<h1>Your Store</h1>"));
+        }
+    }
+
+    static final String LOGIN_FORM = "<form method='post' action='index.php?route=account/login'>"
+            + "<input id='input-email' name='email'><input id='input-password' name='password' type='password'>"
+            + "<input type='submit' value='Login'></form>";
+
+    private String page(String content) {
+        return "<html><body><div><span>My Account</span>"
+                + "<a href='" + baseUrl + "index.php?route=account/login'>Login</a>"
+                + "<input placeholder='Search'></div>" + content + "</body></html>";
+    }
+}
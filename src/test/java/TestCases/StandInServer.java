@@ -0,0 +1,205 @@
+package TestCases;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * StandInServer is a local HTTP server on a free port for the offline test classes. Each class
+ * supplies the pages of its own minimal OpenCart stand-in; the server handles the parts they
+ * share: the OCSESSID session cookie, query and form parameters, and writing responses.
+ */
+final class StandInServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(StandInServer.class);
+
+    /**
+     * Answers one request of the stand-in.
+     */
+    interface Handler {
+        void handle(Request request) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final String baseUrl;
+
+    private StandInServer(HttpServer server) {
+        this.server = server;
+        this.baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Starts a server on a free local port.
+     *
+     * @param name    the stand-in's name, for the log
+     * @param handler answers every request
+     * @return the running server
+     * @throws IOException if the server cannot be started
+     */
+    static StandInServer start(String name, Handler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        StandInServer standIn = new StandInServer(server);
+        server.createContext("/", exchange -> handler.handle(new Request(exchange, standIn.baseUrl)));
+        server.start();
+        logger.info(name + " started at " + standIn.baseUrl);
+        return standIn;
+    }
+
+    /**
+     * @return the server's root URL, ending with a slash
+     */
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * One request, with the stand-in's session, route and parameters.
+     */
+    static final class Request {
+
+        private final HttpExchange exchange;
+        private final String baseUrl;
+        private final Map<String, String> query;
+        private Map<String, String> form;
+        private String session;
+
+        private Request(HttpExchange exchange, String baseUrl) {
+            this.exchange = exchange;
+            this.baseUrl = baseUrl;
+            this.query = parse(exchange.getRequestURI().getRawQuery());
+        }
+
+        /**
+         * @return the request path, e.g. "/index.php"
+         */
+        String path() {
+            return exchange.getRequestURI().getPath();
+        }
+
+        /**
+         * @return the OpenCart route parameter, or an empty string
+         */
+        String route() {
+            return query.getOrDefault("route", "");
+        }
+
+        /**
+         * @param name the query parameter
+         * @return its decoded value, or null
+         */
+        String param(String name) {
+            return query.get(name);
+        }
+
+        /**
+         * @return the decoded form fields of a POST, empty for other methods
+         * @throws IOException if the body cannot be read
+         */
+        Map<String, String> form() throws IOException {
+            if (form == null) {
+                form = "POST".equals(exchange.getRequestMethod())
+                        ? parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                        : Map.of();
+            }
+            return form;
+        }
+
+        /**
+         * Returns the OCSESSID session id, starting a session with a cookie if the request has none.
+         * Call it before responding.
+         *
+         * @return the session id
+         */
+        String session() {
+            if (session == null) {
+                session = cookie("OCSESSID");
+                if (session == null) {
+                    session = UUID.randomUUID().toString().replace("-", "");
+                    exchange.getResponseHeaders().add("Set-Cookie", "OCSESSID=" + session + "; Path=/");
+                }
+            }
+            return session;
+        }
+
+        private String cookie(String name) {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookie != null) {
+                for (String part : cookie.split(";")) {
+                    String[] pair = part.trim().split("=", 2);
+                    if (pair.length == 2 && pair[0].equals(name)) {
+                        return pair[1];
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Answers with an HTML page.
+         *
+         * @param body the page
+         * @throws IOException if the response cannot be written
+         */
+        void html(String body) throws IOException {
+            respond(200, "text/html; charset=utf-8", body);
+        }
+
+        /**
+         * Redirects to a route of the stand-in.
+         *
+         * @param route the OpenCart route, e.g. "account/account"
+         * @throws IOException if the response cannot be written
+         */
+        void redirect(String route) throws IOException {
+            exchange.getResponseHeaders().add("Location", baseUrl + "index.php?route=" + route);
+            respond(302, null, "");
+        }
+
+        /**
+         * Answers with a status and body.
+         *
+         * @param status      the HTTP status
+         * @param contentType the Content-Type header, or null for none
+         * @param body        the body; empty for none
+         * @throws IOException if the response cannot be written
+         */
+        void respond(int status, String contentType, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (contentType != null) {
+                exchange.getResponseHeaders().add("Content-Type", contentType);
+            }
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private static Map<String, String> parse(String encoded) {
+            Map<String, String> values = new HashMap<>();
+            if (encoded != null) {
+                for (String pair : encoded.split("&")) {
+                    String[] kv = pair.split("=", 2);
+                    if (kv.length == 2) {
+                        values.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package TestCases;
+
+import Drivers.DriverFactory;
+import Utilities.StorefrontFixtures;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test class for verifying the HTTP fixture layer against a local stand-in storefront,
+ * so it runs offline with the in-process HtmlUnit backend.
+ */
+public class StorefrontFixturesTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+    StandInServer server;
+    WebDriver driver;
+    String baseUrl;
+
+    // Stand-in storefront state: cart quantities per session id, and registered emails
+    final Map<String, Map<String, Integer>> carts = new ConcurrentHashMap<>();
+    final Set<String> customers = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass(groups = {"Master", "Smoke"})
+    public void setUp() throws IOException {
+        server = StandInServer.start("Stand-in storefront", this::handle);
+        baseUrl = server.baseUrl();
+
+        driver = DriverFactory.createDriver("htmlunit");
+    }
+
+    @AfterClass(groups = {"Master", "Smoke"})
+    public void tearDown() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Seeds the cart over HTTP and checks the browser session sees it on the cart page.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void seededCartIsVisibleInBrowser() {
+        StorefrontFixtures fixtures = new StorefrontFixtures(driver, baseUrl);
+        String productId = fixtures.findProductId("iMac");
+        Assert.assertEquals(productId, "41", "Product id not parsed from search results");
+
+        fixtures.addToCart(productId, 2);
+        fixtures.openCart();
+
+        String quantity = driver.findElement(By.xpath("//div[@class='input-group btn-block']/input")).getAttribute("value");
+        Assert.assertEquals(quantity, "2", "Cart seeded over HTTP is not visible in the browser session");
+    }
+
+    /**
+     * Registers a customer over HTTP and checks the stand-in storefront accepted it.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void registersCustomerOverHttp() {
+        StorefrontFixtures fixtures = new StorefrontFixtures(driver, baseUrl);
+        fixtures.registerCustomer("ADA", "LOVELACE", "ada@example.com", "5550100", "secret1");
+        Assert.assertTrue(customers.contains("ada@example.com"), "Registration did not reach the storefront");
+    }
+
+    /**
+     * Minimal OpenCart stand-in: search, cart/add, cart, register and a session cookie.
+     */
+    private void handle(StandInServer.Request request) throws IOException {
+        String session = request.session();
+        Map<String, String> form = request.form();
+
+        switch (request.route()) {
+            case "product/search":
+                request.html("<html><body><div class='product-layout'>"
+                        + "<a href='" + baseUrl + "index.php?route=product/product&product_id=41'>iMac</a></div></body></html>");
+                break;
+            case "checkout/cart/add":
+                carts.computeIfAbsent(session, k -> new ConcurrentHashMap<>())
+                        .merge(form.get("product_id"), Integer.parseInt(form.get("quantity")), Integer::sum);
+                request.respond(200, "application/json", "{\"success\":\"Success: You have added iMac to your shopping cart!\"}");
+                break;
+            case "checkout/cart":
+                StringBuilder rows = new StringBuilder();
+                carts.getOrDefault(session, Map.of()).forEach((id, qty) -> rows.append("<tr><td>product ")
+                        .append(id).append("</td><td><div class='input-group btn-block'><input value='")
+                        .append(qty).append("'></div></td></tr>"));
+                request.html("<html><body><table>" + rows + "</table></body></html>");
+                break;
+            case "account/register":
+                customers.add(form.get("email"));
+                request.redirect("account/success");
+                break;
+            default:
+                request.html("<html><body><h1>Your Store</h1></body></html>");
+        }
+    }
+}
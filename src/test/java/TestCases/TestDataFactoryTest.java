@@ -0,0 +1,73 @@
+package TestCases;
+
+import Utilities.TestDataFactory;
+import Utilities.TestDataFactory.Customer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for verifying that TestDataFactory emails stay unique when many threads and
+ * several shards generate customers at once. It uses its own factories, so the shared ones
+ * keep their counts, and runs offline without a browser.
+ */
+public class TestDataFactoryTest {
+
+    Logger logger = LogManager.getLogger(this.getClass());
+
+    /**
+     * Eight threads draw from two shards' factories with the same seed and run id; every email is distinct.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void emailsAreUniqueAcrossThreadsAndShards() throws Exception {
+        logger.info("Starting emailsAreUniqueAcrossThreadsAndShards...");
+        TestDataFactory[] shards = {new TestDataFactory(42, "unit", 0), new TestDataFactory(42, "unit", 1)};
+        int threads = 8;
+        int perThread = 25_000;
+
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                TestDataFactory factory = shards[t % shards.length];
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Customer customer = factory.nextCustomer();
+                        Assert.assertTrue(customer.email().length() < 96, "Email too long: " + customer.email());
+                        Assert.assertTrue(emails.add(customer.email()), "Duplicate email: " + customer.email());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(); // Rethrows assertion failures from the workers
+            }
+            logger.info(String.format("Generated %d customers in %d ms: %s / %s", threads * perThread,
+                    (System.nanoTime() - start) / 1_000_000, shards[0].stats(), shards[1].stats()));
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(emails.size(), threads * perThread, "Every generated email should be distinct");
+    }
+
+    /**
+     * Factories of different shards never produce the same email, even at the same sequence number.
+     */
+    @Test(groups = {"Smoke", "Master"})
+    public void shardsDoNotShareEmails() {
+        Customer first = new TestDataFactory(7, "unit", 0).nextCustomer();
+        Customer second = new TestDataFactory(7, "unit", 1).nextCustomer();
+        Assert.assertEquals(first.firstName(), second.firstName(), "The same seed should give the same names");
+        Assert.assertNotEquals(first.email(), second.email(), "Shards must not share emails");
+    }
+}
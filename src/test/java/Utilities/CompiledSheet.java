@@ -0,0 +1,340 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * CompiledSheet is a compact binary, column-major copy of one sheet's formatted cell values, read
+ * through a memory-mapped buffer. It is stamped with the SHA-256 of the source workbook, so it is
+ * used only while the workbook's content is unchanged; after that the workbook is parsed again and
+ * the file recompiled.
+ * <p>
+ * Layout (big-endian): magic, version, source hash (32 bytes), row count, column count, the cell
+ * count of each row, then for each column the string index of every row's cell (-1 for no cell),
+ * then the string pool: count, byte offsets and UTF-8 bytes. Repeated values are stored once.
+ * <p>
+ * Files live in "testData.cacheDir" (default target/test-data-cache) unless a caller passes its own
+ * directory. Run main() with workbook paths to compile them ahead of a run, e.g. from a build step.
+ */
+public final class CompiledSheet {
+
+    private static final Logger logger = LogManager.getLogger(CompiledSheet.class);
+
+    private static final int MAGIC = 0x584C5343; // "XLSC"
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER = 4 + 4 + HASH_LENGTH + 4 + 4;
+
+    private final String sheetName;
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final int columnCount;
+    private final int cellsAt;
+    private final int poolAt;
+    private final int bytesAt;
+    private final String[] strings; // Decoded on first use
+
+    private CompiledSheet(String sheetName, ByteBuffer buffer) {
+        this.sheetName = sheetName;
+        this.buffer = buffer;
+        this.rowCount = buffer.getInt(HEADER - 8);
+        this.columnCount = buffer.getInt(HEADER - 4);
+        this.cellsAt = HEADER + rowCount * 4;
+        this.poolAt = cellsAt + columnCount * rowCount * 4;
+        int poolSize = buffer.getInt(poolAt);
+        this.bytesAt = poolAt + 4 + (poolSize + 1) * 4;
+        this.strings = new String[poolSize];
+    }
+
+    /**
+     * Computes the SHA-256 of a file's content.
+     *
+     * @param file the file to hash
+     * @return the digest
+     * @throws IOException if the file cannot be read
+     */
+    public static byte[] hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] chunk = new byte[64 * 1024];
+            for (int n = in.read(chunk); n > 0; n = in.read(chunk)) {
+                digest.update(chunk, 0, n);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the default directory for compiled sheets.
+     *
+     * @return "testData.cacheDir", or target/test-data-cache when it is not set
+     */
+    public static Path directory() {
+        return Path.of(System.getProperty("testData.cacheDir", "target/test-data-cache"));
+    }
+
+    /**
+     * Returns where the compiled copy of a sheet is stored in the default directory.
+     *
+     * @param source    the Excel file
+     * @param sheetName the name of the sheet
+     * @return the path of the compiled file
+     */
+    public static Path location(Path source, String sheetName) {
+        return location(directory(), source, sheetName);
+    }
+
+    /**
+     * Returns where the compiled copy of a sheet is stored.
+     *
+     * @param directory the directory holding compiled sheets
+     * @param source    the Excel file
+     * @param sheetName the name of the sheet
+     * @return the path of the compiled file
+     */
+    public static Path location(Path directory, Path source, String sheetName) {
+        Path absolute = source.toAbsolutePath().normalize();
+        String name = absolute.getFileName() + "-" + Integer.toHexString(absolute.toString().hashCode())
+                + "-" + sheetName.replaceAll("[^A-Za-z0-9._-]", "_") + ".xlsc";
+        return directory.resolve(name);
+    }
+
+    /**
+     * Maps the compiled copy of a sheet in the default directory, see open(Path, Path, String, byte[]).
+     *
+     * @param source    the Excel file
+     * @param sheetName the name of the sheet
+     * @param hash      the SHA-256 of the Excel file's current content
+     * @return the compiled sheet, or null if it is missing, stale or unreadable
+     */
+    public static CompiledSheet open(Path source, String sheetName, byte[] hash) {
+        return open(directory(), source, sheetName, hash);
+    }
+
+    /**
+     * Maps the compiled copy of a sheet if it exists and was compiled from content with the given hash.
+     *
+     * @param directory the directory holding compiled sheets
+     * @param source    the Excel file
+     * @param sheetName the name of the sheet
+     * @param hash      the SHA-256 of the Excel file's current content
+     * @return the compiled sheet, or null if it is missing, stale or unreadable
+     */
+    public static CompiledSheet open(Path directory, Path source, String sheetName, byte[] hash) {
+        Path file = location(directory, source, sheetName);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] stamp = new byte[HASH_LENGTH];
+            buffer.get(8, stamp);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || !Arrays.equals(stamp, hash)) {
+                return null;
+            }
+            return new CompiledSheet(sheetName, buffer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable compiled sheet " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the compiled copy of a sheet to the default directory, see write(Path, Path, ExcelTable, byte[]).
+     *
+     * @param source    the Excel file the table was read from
+     * @param table     the sheet's cell values
+     * @param hash      the SHA-256 of the content the table was read from
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path source, ExcelTable table, byte[] hash) throws IOException {
+        write(directory(), source, table, hash);
+    }
+
+    /**
+     * Writes the compiled copy of a sheet, replacing any previous one atomically.
+     *
+     * @param directory the directory holding compiled sheets
+     * @param source    the Excel file the table was read from
+     * @param table     the sheet's cell values
+     * @param hash      the SHA-256 of the content the table was read from
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path directory, Path source, ExcelTable table, byte[] hash) throws IOException {
+        int rows = table.rowCount();
+        int columns = 0;
+        for (int r = 0; r < rows; r++) {
+            columns = Math.max(columns, table.cellCount(r));
+        }
+
+        // Pool each distinct value once; credential sheets repeat passwords and results a lot
+        Map<String, Integer> indexes = new HashMap<>();
+        List<byte[]> pool = new ArrayList<>();
+        int[] cells = new int[columns * rows];
+        for (int c = 0; c < columns; c++) {
+            for (int r = 0; r < rows; r++) {
+                cells[c * rows + r] = c < table.cellCount(r)
+                        ? indexes.computeIfAbsent(table.cell(r, c), v -> {
+                            pool.add(v.getBytes(StandardCharsets.UTF_8));
+                            return pool.size() - 1;
+                        })
+                        : -1;
+            }
+        }
+        int poolBytes = 0;
+        for (byte[] value : pool) {
+            poolBytes += value.length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER + rows * 4 + cells.length * 4 + 4 + (pool.size() + 1) * 4 + poolBytes);
+        out.putInt(MAGIC).putInt(VERSION).put(hash).putInt(rows).putInt(columns);
+        for (int r = 0; r < rows; r++) {
+            out.putInt(table.cellCount(r));
+        }
+        for (int cell : cells) {
+            out.putInt(cell);
+        }
+        out.putInt(pool.size());
+        int offset = 0;
+        for (byte[] value : pool) {
+            out.putInt(offset);
+            offset += value.length;
+        }
+        out.putInt(offset);
+        for (byte[] value : pool) {
+            out.put(value);
+        }
+
+        Path file = location(directory, source, table.sheetName());
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, out.array());
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        logger.info("Compiled " + source.getFileName() + " [" + table.sheetName() + "] to " + file
+                + " (" + out.capacity() + " bytes, " + pool.size() + " distinct values)");
+    }
+
+    /**
+     * @return the number of rows, header included
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Decodes one row from the mapped buffer.
+     *
+     * @param rownum the row number
+     * @return the row's cell values; empty for a missing row
+     */
+    public List<String> row(int rownum) {
+        if (rownum < 0 || rownum >= rowCount) {
+            return List.of();
+        }
+        int cellCount = buffer.getInt(HEADER + rownum * 4);
+        String[] values = new String[cellCount];
+        for (int c = 0; c < cellCount; c++) {
+            int index = buffer.getInt(cellsAt + (c * rowCount + rownum) * 4);
+            values[c] = index < 0 ? "" : string(index);
+        }
+        return List.of(values);
+    }
+
+    /**
+     * Iterates the rows, decoding each one when it is reached.
+     *
+     * @return an iterator over the rows, header first
+     */
+    public Iterator<List<String>> rows() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rowCount;
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return row(next++);
+            }
+        };
+    }
+
+    /**
+     * Decodes every row into a table.
+     *
+     * @return the sheet's cell values
+     */
+    public ExcelTable toTable() {
+        List<List<String>> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            rows.add(row(r));
+        }
+        return new ExcelTable(sheetName, rows);
+    }
+
+    private String string(int index) {
+        // Racing threads decode the same value; either copy is fine
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(poolAt + 4 + index * 4);
+            byte[] bytes = new byte[buffer.getInt(poolAt + 4 + (index + 1) * 4) - start];
+            buffer.get(bytesAt + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Compiles "Sheet1" of each workbook given, or "path:sheet" for another sheet.
+     *
+     * @param args workbook paths
+     * @throws IOException if a workbook cannot be read or compiled
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            int colon = arg.lastIndexOf(':');
+            boolean named = colon > 1; // Not a Windows drive letter
+            String path = named ? arg.substring(0, colon) : arg;
+            ExcelReader.read(path, named ? arg.substring(colon + 1) : "Sheet1");
+        }
+    }
+}
@@ -1,44 +1,168 @@
 package Utilities;
 
-import java.io.IOException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
 /**
  * This class provides test data for login functionality using TestNG's DataProvider.
  * The data is fetched from an Excel file containing login information.
+ * <p>
+ * Rows are handed to TestNG one at a time as they are read, so the first test starts before the
+ * whole sheet is loaded. Columns are looked up by their header name, so reordering or adding
+ * columns in the sheet does not break the tests. The providers run with parallel = true; the
+ * number of workers comes from -DdataProvider.threads, or the suite's data-provider-thread-count.
+ * <p>
+ * With shard.index and shard.count set (see Shard), each run reads only its own range of rows.
  */
 public class DataProviders {
 
+    private static final Logger logger = LogManager.getLogger(DataProviders.class);
+
+    // Path to the Excel file containing the login data
+    static final String LOGIN_DATA = "./testData/Opencart_Login_Information.xlsx";
+
     /**
      * DataProvider method to supply login data for testing.
-     * The method reads login credentials from an Excel file and returns a 2D array of strings.
+     * Each invocation gets the email, password and expected outcome of one non-blank row
+     * of the configured shard.
      *
-     * @return A 2D array containing login data: email, password, and expected outcome.
+     * @param context the TestNG context, used to apply the configured worker count and shard
+     * @return the login rows, read lazily: email, password, and expected outcome (Valid/Invalid)
      * @throws IOException if there is an error reading the Excel file.
      */
-    @DataProvider(name = "loginData")
-    public String[][] getData() throws IOException {
-        // Define the path to the Excel file containing the login data
-        String path = ".\\testData\\Opencart_Login_Information.xlsx";
-
-        // Create an instance of ExcelUtility to handle Excel operations
-        ExcelUtility xlutil = new ExcelUtility(path);
-
-        // Get the total number of rows and columns in the specified sheet
-        int totalRows = xlutil.getRowCount("Sheet1");
-        int totalCols = xlutil.getCellCount("Sheet1", 1);
-
-        // Initialize a 2D array to hold the login data
-        String[][] loginData = new String[totalRows][totalCols];
-
-        // Loop through the rows of the Excel sheet to read the login data
-        for (int i = 1; i <= totalRows; i++) {
-            loginData[i - 1][0] = xlutil.getCellData("Sheet1", i, 0); // Email
-            loginData[i - 1][1] = xlutil.getCellData("Sheet1", i, 1); // Password
-            loginData[i - 1][2] = xlutil.getCellData("Sheet1", i, 2); // Expected outcome (Valid/Invalid)
+    @DataProvider(name = "loginData", parallel = true)
+    public Iterator<Object[]> getData(ITestContext context) throws IOException {
+        applyThreadCount(context);
+        return rows(LOGIN_DATA, "Sheet1", Shard.from(context), "username", "password", "result");
+    }
+
+    /**
+     * Streams the rows of a sheet as data provider parameters, picking the named columns in order.
+     * The first row is the header; header names are matched ignoring case and surrounding spaces.
+     * Rows with no value in any of the named columns are skipped.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param columns   the header names of the columns to pass, in parameter order
+     * @return an iterator that builds each parameter array when TestNG asks for it
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the sheet has no header or a column is missing from it
+     */
+    public static Iterator<Object[]> rows(String path, String sheetName, String... columns) throws IOException {
+        return rows(path, sheetName, Shard.ALL, columns);
+    }
+
+    /**
+     * Streams one shard's rows of a sheet as data provider parameters, picking the named columns in order.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param shard     the slice of data rows to pass
+     * @param columns   the header names of the columns to pass, in parameter order
+     * @return an iterator that builds each parameter array when TestNG asks for it
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the sheet has no header or a column is missing from it
+     */
+    public static Iterator<Object[]> rows(String path, String sheetName, Shard shard, String... columns) throws IOException {
+        return rows(path, sheetName, shard, CompiledSheet.directory(), columns);
+    }
+
+    /**
+     * Streams one shard's rows of a sheet as data provider parameters, keeping the sheet's compiled
+     * copy in the given directory instead of the default one.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param shard     the slice of data rows to pass
+     * @param cacheDir  the directory holding compiled sheets
+     * @param columns   the header names of the columns to pass, in parameter order
+     * @return an iterator that builds each parameter array when TestNG asks for it
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the sheet has no header or a column is missing from it
+     */
+    public static Iterator<Object[]> rows(String path, String sheetName, Shard shard, Path cacheDir, String... columns)
+            throws IOException {
+        Iterator<List<String>> rows = ExcelReader.stream(path, sheetName, shard, cacheDir);
+        if (!rows.hasNext()) {
+            throw new IllegalArgumentException("Sheet " + sheetName + " in " + path + " has no header row");
+        }
+        int[] indexes = columnIndexes(rows.next(), columns);
+        logger.info("Streaming " + sheetName + " of " + path + " with columns " + Arrays.toString(columns));
+
+        return new Iterator<>() {
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    next = pick(rows.next(), indexes);
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Finds the position of each named column in the header row.
+     */
+    static int[] columnIndexes(List<String> header, String... columns) {
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = -1;
+            for (int c = 0; c < header.size(); c++) {
+                if (header.get(c).trim().equalsIgnoreCase(columns[i].trim())) {
+                    indexes[i] = c;
+                    break;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Column '" + columns[i] + "' not found in header " + header);
+            }
         }
+        return indexes;
+    }
 
-        // Return the populated 2D array containing the login data
-        return loginData;
+    /**
+     * Builds the parameters for one row, or returns null if the row is blank in every named column.
+     */
+    private static Object[] pick(List<String> row, int[] indexes) {
+        Object[] values = new Object[indexes.length];
+        boolean blank = true;
+        for (int i = 0; i < indexes.length; i++) {
+            String value = indexes[i] < row.size() ? row.get(indexes[i]) : "";
+            values[i] = value;
+            blank &= value.isBlank();
+        }
+        return blank ? null : values;
+    }
+
+    /**
+     * Applies -DdataProvider.threads to the suite before TestNG creates the data provider pool.
+     * Without it the suite's data-provider-thread-count (TestNG's default is 10) is used.
+     */
+    private static void applyThreadCount(ITestContext context) {
+        String threads = System.getProperty("dataProvider.threads");
+        if (threads != null && !threads.isBlank()) {
+            context.getSuite().getXmlSuite().setDataProviderThreadCount(Integer.parseInt(threads.trim()));
+        }
     }
 }
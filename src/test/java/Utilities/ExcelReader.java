@@ -0,0 +1,336 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * ExcelReader loads a sheet in a single streaming pass with POI's event (SAX) model and caches the
+ * result as an immutable ExcelTable. Only the formatted cell values are kept in memory, never the
+ * workbook object model. Tables are cached per file and sheet, and reloaded when the file's
+ * modification time or size changes.
+ * <p>
+ * Each parse is also written to a CompiledSheet stamped with the workbook's content hash; later
+ * runs map that file instead of starting POI, until the workbook's content changes. Compiled sheets
+ * go to CompiledSheet.directory() unless a caller passes its own directory.
+ * <p>
+ * stream() hands out rows while the parse is still running, so a data provider can start its
+ * first test before a large sheet has been read completely.
+ */
+public final class ExcelReader {
+
+    private static final Logger logger = LogManager.getLogger(ExcelReader.class);
+
+    private record Entry(FileTime modified, long size, ExcelTable table) {
+    }
+
+    // Cached tables keyed by "absolute path|sheet"
+    private static final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    // Rows buffered between the streaming parser and its consumer
+    private static final int STREAM_BUFFER = 256;
+    // Marks the end of a stream; compared by identity
+    private static final List<String> END = new ArrayList<>();
+
+    private static final LongAdder poiLoads = new LongAdder();
+    private static final LongAdder poiNanos = new LongAdder();
+    private static final LongAdder compiledLoads = new LongAdder();
+    private static final LongAdder compiledNanos = new LongAdder();
+    private static final LongAdder memoryHits = new LongAdder();
+
+    private ExcelReader() {
+    }
+
+    /**
+     * Returns the sheet's table, parsing the file only if it is not cached or has changed.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @return the sheet's cell values
+     * @throws IOException if the file cannot be read or has no such sheet
+     */
+    public static ExcelTable read(String path, String sheetName) throws IOException {
+        return read(path, sheetName, CompiledSheet.directory());
+    }
+
+    /**
+     * Returns the sheet's table, keeping its compiled copy in the given directory.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param cacheDir  the directory holding compiled sheets
+     * @return the sheet's cell values
+     * @throws IOException if the file cannot be read or has no such sheet
+     */
+    public static ExcelTable read(String path, String sheetName, Path cacheDir) throws IOException {
+        Path file = Path.of(path).toAbsolutePath().normalize();
+        String key = file + "|" + sheetName;
+        FileTime modified = Files.getLastModifiedTime(file);
+        long size = Files.size(file);
+
+        Entry entry = cache.get(key);
+        if (entry != null && entry.modified().equals(modified) && entry.size() == size) {
+            memoryHits.increment();
+            return entry.table();
+        }
+        // Loaded under the key's lock so parallel data providers parse the file only once
+        try {
+            return cache.compute(key, (k, current) -> {
+                if (current != null && current.modified().equals(modified) && current.size() == size) {
+                    return current;
+                }
+                return new Entry(modified, size, load(file, sheetName, cacheDir));
+            }).table();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the sheet's rows one by one, header first. A cached table is iterated directly and a
+     * current compiled copy is decoded row by row; otherwise the sheet is parsed on a background thread that hands rows over through a
+     * bounded queue as they are read, and the finished table is cached for the next caller.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @return an iterator over the rows; it throws UncheckedIOException if the parse fails
+     * @throws IOException if the file cannot be read
+     */
+    public static Iterator<List<String>> stream(String path, String sheetName) throws IOException {
+        return stream(path, sheetName, CompiledSheet.directory());
+    }
+
+    /**
+     * Returns the sheet's rows one by one, header first, keeping its compiled copy in the given directory.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param cacheDir  the directory holding compiled sheets
+     * @return an iterator over the rows; it throws UncheckedIOException if the parse fails
+     * @throws IOException if the file cannot be read
+     */
+    public static Iterator<List<String>> stream(String path, String sheetName, Path cacheDir) throws IOException {
+        Path file = Path.of(path).toAbsolutePath().normalize();
+        String key = file + "|" + sheetName;
+        FileTime modified = Files.getLastModifiedTime(file);
+        long size = Files.size(file);
+
+        Entry entry = cache.get(key);
+        if (entry != null && entry.modified().equals(modified) && entry.size() == size) {
+            memoryHits.increment();
+            return entry.table().rows().iterator();
+        }
+
+        long start = System.nanoTime();
+        byte[] hash = CompiledSheet.hash(file);
+        CompiledSheet compiled = CompiledSheet.open(cacheDir, file, sheetName, hash);
+        if (compiled != null) {
+            record(compiledLoads, compiledNanos, start); // Rows are decoded from the mapped file as they are read
+            return compiled.rows();
+        }
+
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(STREAM_BUFFER);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread parser = new Thread(() -> {
+            try {
+                ExcelTable table = XlsxParser.parse(file, sheetName, row -> put(queue, row));
+                cache.put(key, new Entry(modified, size, table));
+                compile(cacheDir, file, table, hash);
+                record(poiLoads, poiNanos, start);
+            } catch (RuntimeException e) {
+                failure.set(e);
+            } finally {
+                put(queue, END);
+            }
+        }, "excel-stream-" + file.getFileName());
+        parser.setDaemon(true);
+        parser.start();
+
+        return new Iterator<>() {
+            private List<String> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while reading " + file, e);
+                    }
+                }
+                if (next == END && failure.get() != null) {
+                    throw failure.get();
+                }
+                return next != END;
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<String> row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Returns the header row followed by one shard's range of rows. The range is taken from the
+     * cached table or decoded straight from the compiled copy, so a shard never materializes the
+     * other shards' rows; only a changed workbook is parsed (and compiled) in full first.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param shard     the slice of data rows to return
+     * @return an iterator over the header and the shard's rows
+     * @throws IOException if the file cannot be read or has no such sheet
+     */
+    public static Iterator<List<String>> stream(String path, String sheetName, Shard shard) throws IOException {
+        return stream(path, sheetName, shard, CompiledSheet.directory());
+    }
+
+    /**
+     * Returns the header row followed by one shard's range of rows, keeping the compiled copy in the given directory.
+     *
+     * @param path      the path of the Excel file
+     * @param sheetName the name of the sheet
+     * @param shard     the slice of data rows to return
+     * @param cacheDir  the directory holding compiled sheets
+     * @return an iterator over the header and the shard's rows
+     * @throws IOException if the file cannot be read or has no such sheet
+     */
+    public static Iterator<List<String>> stream(String path, String sheetName, Shard shard, Path cacheDir) throws IOException {
+        if (shard.isAll()) {
+            return stream(path, sheetName, cacheDir);
+        }
+        Path file = Path.of(path).toAbsolutePath().normalize();
+        Entry entry = cache.get(file + "|" + sheetName);
+        if (entry != null && entry.modified().equals(Files.getLastModifiedTime(file)) && entry.size() == Files.size(file)) {
+            memoryHits.increment();
+            return slice(entry.table()::row, entry.table().rowCount(), shard);
+        }
+
+        long start = System.nanoTime();
+        CompiledSheet compiled = CompiledSheet.open(cacheDir, file, sheetName, CompiledSheet.hash(file));
+        if (compiled != null) {
+            record(compiledLoads, compiledNanos, start);
+            return slice(compiled::row, compiled.rowCount(), shard);
+        }
+        ExcelTable table = read(path, sheetName, cacheDir);
+        return slice(table::row, table.rowCount(), shard);
+    }
+
+    private static Iterator<List<String>> slice(IntFunction<List<String>> row, int rowCount, Shard shard) {
+        int from = shard.fromRow(rowCount);
+        int to = shard.toRow(rowCount);
+        logger.info("Shard " + shard + " reads rows " + from + ".." + (to - 1) + " of " + (rowCount - 1));
+        return new Iterator<>() {
+            private int next = -1; // The header comes first
+
+            @Override
+            public boolean hasNext() {
+                return next < 0 ? rowCount > 0 : next < to;
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<String> values = row.apply(next < 0 ? 0 : next);
+                next = next < 0 ? from : next + 1;
+                return values;
+            }
+        };
+    }
+
+    private static void put(BlockingQueue<List<String>> queue, List<String> row) {
+        try {
+            queue.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming rows", e);
+        }
+    }
+
+    /**
+     * Drops all cached tables.
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Loads a sheet from its compiled copy when the workbook's content hash still matches, and
+     * otherwise parses the workbook with POI and recompiles it.
+     */
+    private static ExcelTable load(Path file, String sheetName, Path cacheDir) {
+        long start = System.nanoTime();
+        try {
+            byte[] hash = CompiledSheet.hash(file);
+            CompiledSheet compiled = CompiledSheet.open(cacheDir, file, sheetName, hash);
+            if (compiled != null) {
+                ExcelTable table = compiled.toTable();
+                record(compiledLoads, compiledNanos, start);
+                return table;
+            }
+            ExcelTable table = XlsxParser.parse(file, sheetName, row -> {
+            });
+            compile(cacheDir, file, table, hash);
+            record(poiLoads, poiNanos, start);
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void compile(Path cacheDir, Path file, ExcelTable table, byte[] hash) {
+        try {
+            CompiledSheet.write(cacheDir, file, table, hash);
+        } catch (IOException e) {
+            // The compiled copy only saves time; the next run parses the workbook again
+            logger.warn("Could not compile " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void record(LongAdder loads, LongAdder nanos, long start) {
+        loads.increment();
+        nanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Summarizes how sheets were loaded: parsed with POI, mapped from the compiled copy,
+     * or served from memory.
+     *
+     * @return the load counts and average load times per path
+     */
+    public static String stats() {
+        return String.format("poi=%d (avg %.1f ms), compiled=%d (avg %.1f ms), memoryHits=%d",
+                poiLoads.sum(), average(poiLoads, poiNanos),
+                compiledLoads.sum(), average(compiledLoads, compiledNanos), memoryHits.sum());
+    }
+
+    private static double average(LongAdder loads, LongAdder nanos) {
+        long count = loads.sum();
+        return count == 0 ? 0 : nanos.sum() / 1_000_000.0 / count;
+    }
+}
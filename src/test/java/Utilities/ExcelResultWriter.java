@@ -0,0 +1,221 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ExcelResultWriter buffers cell values and pass/fail colours for one workbook in memory and writes
+ * them in a single flush: the workbook is opened once, every pending change is applied, and the
+ * result replaces the file atomically (written to a temporary file, then moved over the original),
+ * so a crash never leaves a half-written workbook behind.
+ * <p>
+ * Flushes happen when the buffer reaches the threshold, and for all writers at suite end (flushAll).
+ * The pass and fail colours use one shared cell style each, reused from the workbook when present.
+ * All methods are safe to call from parallel data-driven tests.
+ */
+public final class ExcelResultWriter {
+
+    private static final Logger logger = LogManager.getLogger(ExcelResultWriter.class);
+
+    // One writer per workbook, keyed by absolute path
+    private static final Map<Path, ExcelResultWriter> writers = new ConcurrentHashMap<>();
+
+    private static volatile int flushThreshold = 500;
+
+    private final Path file;
+    private List<Change> pending = new ArrayList<>();
+
+    /**
+     * One buffered change: a value (if not null) and a fill colour (if not null) for a cell.
+     */
+    private record Change(String sheet, int row, int column, String value, IndexedColors fill) {
+    }
+
+    private ExcelResultWriter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the writer for a workbook, creating it on first use.
+     *
+     * @param path the path of the Excel file; created on flush if it does not exist
+     * @return the shared writer for that file
+     */
+    public static ExcelResultWriter forFile(String path) {
+        return writers.computeIfAbsent(Path.of(path).toAbsolutePath().normalize(), ExcelResultWriter::new);
+    }
+
+    /**
+     * Sets how many buffered changes trigger a flush.
+     *
+     * @param threshold the number of pending changes
+     */
+    public static void setFlushThreshold(int threshold) {
+        flushThreshold = threshold;
+    }
+
+    /**
+     * Buffers a cell value.
+     *
+     * @param sheetName the name of the sheet; created on flush if missing
+     * @param rownum    the row number
+     * @param colnum    the column number
+     * @param data      the value to write
+     * @throws IOException if the buffer reached the threshold and the flush failed
+     */
+    public void setCellData(String sheetName, int rownum, int colnum, String data) throws IOException {
+        add(new Change(sheetName, rownum, colnum, data, null));
+    }
+
+    /**
+     * Buffers a green (passed) fill for a cell.
+     *
+     * @param sheetName the name of the sheet
+     * @param rownum    the row number
+     * @param colnum    the column number
+     * @throws IOException if the buffer reached the threshold and the flush failed
+     */
+    public void fillGreenColor(String sheetName, int rownum, int colnum) throws IOException {
+        add(new Change(sheetName, rownum, colnum, null, IndexedColors.GREEN));
+    }
+
+    /**
+     * Buffers a red (failed) fill for a cell.
+     *
+     * @param sheetName the name of the sheet
+     * @param rownum    the row number
+     * @param colnum    the column number
+     * @throws IOException if the buffer reached the threshold and the flush failed
+     */
+    public void fillRedColor(String sheetName, int rownum, int colnum) throws IOException {
+        add(new Change(sheetName, rownum, colnum, null, IndexedColors.RED));
+    }
+
+    /**
+     * @return true if changes are waiting to be written
+     */
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    private void add(Change change) throws IOException {
+        boolean full;
+        synchronized (this) {
+            pending.add(change);
+            full = pending.size() >= flushThreshold;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered changes to the workbook in one atomic replace.
+     *
+     * @throws IOException if the workbook cannot be read or written; the changes stay buffered
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Change> changes = pending;
+
+        try (XSSFWorkbook workbook = open()) {
+            Map<IndexedColors, CellStyle> styles = new EnumMap<>(IndexedColors.class);
+            for (Change change : changes) {
+                XSSFSheet sheet = workbook.getSheet(change.sheet()) != null
+                        ? workbook.getSheet(change.sheet()) : workbook.createSheet(change.sheet());
+                XSSFRow row = sheet.getRow(change.row()) != null ? sheet.getRow(change.row()) : sheet.createRow(change.row());
+                XSSFCell cell = row.getCell(change.column()) != null ? row.getCell(change.column()) : row.createCell(change.column());
+                if (change.value() != null) {
+                    cell.setCellValue(change.value());
+                }
+                if (change.fill() != null) {
+                    cell.setCellStyle(styles.computeIfAbsent(change.fill(), color -> fillStyle(workbook, color)));
+                }
+            }
+            replace(workbook);
+        }
+        pending = new ArrayList<>();
+        logger.info("Wrote " + changes.size() + " result cells to " + file.getFileName()
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Flushes every writer, e.g. at suite end.
+     */
+    public static void flushAll() {
+        for (ExcelResultWriter writer : writers.values()) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                logger.error("Could not write results to " + writer.file, e);
+            }
+        }
+    }
+
+    private XSSFWorkbook open() throws IOException {
+        if (!Files.exists(file)) {
+            return new XSSFWorkbook();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return new XSSFWorkbook(in);
+        }
+    }
+
+    /**
+     * Finds a solid fill style of the given colour already in the workbook, or creates one.
+     */
+    private static CellStyle fillStyle(XSSFWorkbook workbook, IndexedColors color) {
+        for (int i = 0; i < workbook.getNumCellStyles(); i++) {
+            CellStyle style = workbook.getCellStyleAt(i);
+            if (style.getFillPattern() == FillPatternType.SOLID_FOREGROUND
+                    && style.getFillForegroundColor() == color.getIndex() && style.getDataFormat() == 0) {
+                return style;
+            }
+        }
+        CellStyle style = workbook.createCellStyle();
+        style.setFillForegroundColor(color.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+
+    private void replace(XSSFWorkbook workbook) throws IOException {
+        Path dir = file.getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                workbook.write(out);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package Utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ExcelTable is an immutable copy of one sheet's formatted cell values, safe to share between threads.
+ * Row 0 is the sheet's first row, usually the header; missing rows and cells read as empty strings.
+ */
+public final class ExcelTable {
+
+    private final String sheetName;
+    private final List<List<String>> rows;
+
+    /**
+     * Creates a table from rows of cell values. The rows are copied.
+     *
+     * @param sheetName the name of the sheet the values came from
+     * @param rows      the cell values, row by row
+     */
+    public ExcelTable(String sheetName, List<List<String>> rows) {
+        this.sheetName = sheetName;
+        List<List<String>> copy = new ArrayList<>(rows.size());
+        for (List<String> row : rows) {
+            copy.add(List.copyOf(row));
+        }
+        this.rows = Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * @return the name of the sheet
+     */
+    public String sheetName() {
+        return sheetName;
+    }
+
+    /**
+     * @return the number of rows, header included
+     */
+    public int rowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Returns the index of the last row, like XSSFSheet.getLastRowNum().
+     *
+     * @return the last row index, or -1 for an empty sheet
+     */
+    public int lastRowNum() {
+        return rows.size() - 1;
+    }
+
+    /**
+     * Returns the number of cells in a row, like XSSFRow.getLastCellNum().
+     *
+     * @param rownum the row number
+     * @return the index of the last cell plus one, or 0 for a missing row
+     */
+    public int cellCount(int rownum) {
+        return rownum < 0 || rownum >= rows.size() ? 0 : rows.get(rownum).size();
+    }
+
+    /**
+     * Returns the formatted value of a cell.
+     *
+     * @param rownum the row number
+     * @param column the column number
+     * @return the cell value, or an empty string if the cell is missing
+     */
+    public String cell(int rownum, int column) {
+        if (rownum < 0 || rownum >= rows.size()) {
+            return "";
+        }
+        List<String> row = rows.get(rownum);
+        return column < 0 || column >= row.size() ? "" : row.get(column);
+    }
+
+    /**
+     * @param rownum the row number
+     * @return the row's cell values; empty for a missing row
+     */
+    public List<String> row(int rownum) {
+        return rownum < 0 || rownum >= rows.size() ? List.of() : rows.get(rownum);
+    }
+
+    /**
+     * @return all rows, header included
+     */
+    public List<List<String>> rows() {
+        return rows;
+    }
+
+    /**
+     * @return the first row's values
+     */
+    public List<String> header() {
+        return row(0);
+    }
+}
@@ -1,29 +1,17 @@
 package Utilities;
 
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * This class provides utility methods for reading and writing Excel files using Apache POI.
+ * Reads are served from ExcelReader's cached table, so the file is parsed once, not once per cell.
+ * Writes are buffered by ExcelResultWriter and written in one flush; a read flushes pending writes first.
  */
 public class ExcelUtility {
 
-    public FileInputStream fi;
-    public FileOutputStream fo;
-    public XSSFWorkbook workbook;
-    public XSSFSheet sheet;
-    public XSSFRow row;
-    public XSSFCell cell;
-    public CellStyle style;
     String path;
+    Path cacheDir;
 
     /**
      * Constructor to initialize the ExcelUtility with the path to the Excel file.
@@ -31,7 +19,19 @@ public class ExcelUtility {
      * @param path the path of the Excel file
      */
     public ExcelUtility(String path) {
+        this(path, CompiledSheet.directory());
+    }
+
+    /**
+     * Constructor to initialize the ExcelUtility with the path to the Excel file and the
+     * directory for its compiled sheets.
+     *
+     * @param path     the path of the Excel file
+     * @param cacheDir the directory holding compiled sheets
+     */
+    public ExcelUtility(String path, Path cacheDir) {
         this.path = path;
+        this.cacheDir = cacheDir;
     }
 
     /**
@@ -42,13 +42,7 @@ public class ExcelUtility {
      * @throws IOException if there is an error reading the file
      */
     public int getRowCount(String sheetName) throws IOException {
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-        sheet = workbook.getSheet(sheetName);
-        int rowCount = sheet.getLastRowNum(); // Get the last row number
-        workbook.close();
-        fi.close();
-        return rowCount;
+        return table(sheetName).lastRowNum(); // Get the last row number
     }
 
     /**
@@ -60,14 +54,7 @@ public class ExcelUtility {
      * @throws IOException if there is an error reading the file
      */
     public int getCellCount(String sheetName, int rownum) throws IOException {
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-        sheet = workbook.getSheet(sheetName);
-        row = sheet.getRow(rownum);
-        int cellCount = row.getLastCellNum(); // Get the last cell number
-        workbook.close();
-        fi.close();
-        return cellCount; // Return the cell count
+        return table(sheetName).cellCount(rownum); // Get the last cell number
     }
 
     /**
@@ -80,26 +67,11 @@ public class ExcelUtility {
      * @throws IOException if there is an error reading the file
      */
     public String getCellData(String sheetName, int rownum, int column) throws IOException {
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-        sheet = workbook.getSheet(sheetName);
-        row = sheet.getRow(rownum);
-        cell = row.getCell(column);
-
-        DataFormatter formatter = new DataFormatter();
-        String data;
-        try {
-            data = formatter.formatCellValue(cell); // Format the cell value to string
-        } catch (Exception e) {
-            data = ""; // Return an empty string in case of an exception
-        }
-        workbook.close();
-        fi.close();
-        return data; // Return the cell data
+        return table(sheetName).cell(rownum, column); // Return the formatted cell data
     }
 
     /**
-     * Sets data in a specified cell of the sheet.
+     * Sets data in a specified cell of the sheet. The file, sheet and row are created if missing.
      *
      * @param sheetName the name of the sheet
      * @param rownum    the row number
@@ -108,35 +80,7 @@ public class ExcelUtility {
      * @throws IOException if there is an error writing to the file
      */
     public void setCellData(String sheetName, int rownum, int colnum, String data) throws IOException {
-        File xlFile = new File(path);
-        if (!xlFile.exists()) { // Create a new file if it does not exist
-            workbook = new XSSFWorkbook();
-            fo = new FileOutputStream(path);
-            workbook.write(fo);
-        }
-
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-
-        // Create a new sheet if it does not exist
-        if (workbook.getSheetIndex(sheetName) == -1) {
-            workbook.createSheet(sheetName);
-        }
-        sheet = workbook.getSheet(sheetName);
-
-        // Create a new row if it does not exist
-        if (sheet.getRow(rownum) == null) {
-            sheet.createRow(rownum);
-        }
-        row = sheet.getRow(rownum);
-
-        cell = row.createCell(colnum);
-        cell.setCellValue(data); // Set the cell value
-        fo = new FileOutputStream(path);
-        workbook.write(fo); // Write the data to the file
-        workbook.close();
-        fi.close();
-        fo.close();
+        ExcelResultWriter.forFile(path).setCellData(sheetName, rownum, colnum, data);
     }
 
     /**
@@ -148,22 +92,7 @@ public class ExcelUtility {
      * @throws IOException if there is an error writing to the file
      */
     public void fillGreenColor(String sheetName, int rownum, int colnum) throws IOException {
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-        sheet = workbook.getSheet(sheetName);
-
-        row = sheet.getRow(rownum);
-        cell = row.getCell(colnum);
-
-        style = workbook.createCellStyle();
-        style.setFillForegroundColor(IndexedColors.GREEN.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        cell.setCellStyle(style); // Apply the style to the cell
-        fo = new FileOutputStream(path);
-        workbook.write(fo); // Write the changes to the file
-        workbook.close();
-        fi.close();
-        fo.close();
+        ExcelResultWriter.forFile(path).fillGreenColor(sheetName, rownum, colnum);
     }
 
     /**
@@ -175,21 +104,20 @@ public class ExcelUtility {
      * @throws IOException if there is an error writing to the file
      */
     public void fillRedColor(String sheetName, int rownum, int colnum) throws IOException {
-        fi = new FileInputStream(path);
-        workbook = new XSSFWorkbook(fi);
-        sheet = workbook.getSheet(sheetName);
+        ExcelResultWriter.forFile(path).fillRedColor(sheetName, rownum, colnum);
+    }
 
-        row = sheet.getRow(rownum);
-        cell = row.getCell(colnum);
+    /**
+     * Writes all buffered changes to the file now.
+     *
+     * @throws IOException if there is an error writing to the file
+     */
+    public void flush() throws IOException {
+        ExcelResultWriter.forFile(path).flush();
+    }
 
-        style = workbook.createCellStyle();
-        style.setFillForegroundColor(IndexedColors.RED.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        cell.setCellStyle(style); // Apply the style to the cell
-        fo = new FileOutputStream(path);
-        workbook.write(fo); // Write the changes to the file
-        workbook.close();
-        fi.close();
-        fo.close();
+    private ExcelTable table(String sheetName) throws IOException {
+        flush(); // Reads see this utility's own pending writes
+        return ExcelReader.read(path, sheetName, cacheDir);
     }
 }
@@ -1,32 +1,69 @@
 package Utilities;
 
+import Drivers.DriverFactory;
+import Drivers.DriverPool;
+import Drivers.NetworkMode;
+import Support.CommandTimings;
+import Support.ElementCache;
+import Support.FormFill;
+import Support.PageProbe;
+import Support.PageTimings;
+import Support.WaitStats;
 import TestBase.Base;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
+import org.testng.Reporter;
 
 import java.awt.Desktop;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class manages the generation and configuration of the Extent report during the test execution.
  * It implements the TestNG ITestListener interface to listen to the events of test execution and log the results.
+ * <p>
+ * Each test invocation gets its own ReportEntry when it starts, kept on its ITestResult, so parallel
+ * tests and data provider rows never log into each other's entries. Tests can add lines with step().
+ * <p>
+ * Events are appended to a ResultJournal (reports/Test-Report-*.jsonl) while the tests run, so nothing
+ * accumulates in memory and a crashed run still leaves its results on disk. The HTML report is built
+ * from the journal in onFinish; after a crash, run main() with the journal path to build it.
+ * <p>
+ * onFinish also adds the run's durations to the browser's PerfHistory and reports how they compare
+ * to the baseline in a "Performance Trend" entry.
  */
 public class ExtentReportManager implements ITestListener {
 
-    public ExtentSparkReporter sparkReporter;  // Reporter for generating HTML report
-    public ExtentReports extent;               // Main report object
-    public ExtentTest test;                    // Represents a single test in the report
+    private static final Logger logger = LogManager.getLogger(ExtentReportManager.class);
+
+    public ExtentReports extent;               // Main report object, built from the journal at the end
     String reportName;                         // Name of the report file
+    ResultJournal journal;                     // Test events of this run, in order
+
+    private final Queue<CompletableFuture<?>> attachments = new ConcurrentLinkedQueue<>(); // Screenshots being stored
 
     /**
      * This method is invoked at the start of the test execution and initializes the Extent report configuration.
@@ -37,29 +74,51 @@ public class ExtentReportManager implements ITestListener {
         String timeStamp = new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
         reportName = "Test-Report-" + timeStamp + ".html";  // Generate unique report name
 
-        sparkReporter = new ExtentSparkReporter(".\\reports\\" + reportName);
-        sparkReporter.config().setDocumentTitle("OpenCart Automation Report");
-        sparkReporter.config().setReportName("OpenCart Functional Testing");
-        sparkReporter.config().setTheme(Theme.DARK);
-
-        extent = new ExtentReports();
-        extent.attachReporter(sparkReporter);
+        try {
+            journal = ResultJournal.open(Path.of("reports", reportName.replace(".html", ".jsonl")));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the result journal", e);
+        }
 
-        extent.setSystemInfo("Application", "OpenCart");
-        extent.setSystemInfo("Module", "Admin");
-        extent.setSystemInfo("Sub Module", "Customers");
-        extent.setSystemInfo("User Name", "Swagat Acharya");
-        extent.setSystemInfo("Environment", "QA");
+        journal.info("Application", "OpenCart");
+        journal.info("Module", "Admin");
+        journal.info("Sub Module", "Customers");
+        journal.info("User Name", "Swagat Acharya");
+        journal.info("Environment", "QA");
 
         String os = testContext.getCurrentXmlTest().getParameter("os");
-        extent.setSystemInfo("Operating System", os);
+        journal.info("Operating System", os);
 
         String browser = testContext.getCurrentXmlTest().getParameter("br");
-        extent.setSystemInfo("Browser", browser);
+        journal.info("Browser", browser);
 
         List<String> includedGroups = testContext.getCurrentXmlTest().getIncludedGroups();
         if (!includedGroups.isEmpty()) {
-            extent.setSystemInfo("Groups", String.join(", ", includedGroups));
+            journal.info("Groups", String.join(", ", includedGroups));
+        }
+    }
+
+    /**
+     * This method is invoked when a test method starts and opens its report entry,
+     * so steps logged while it runs are recorded against it.
+     *
+     * @param result The result of the starting test method
+     */
+    public void onTestStart(ITestResult result) {
+        ReportEntry.of(result, journal);
+    }
+
+    /**
+     * Adds an informational line to the report entry of the test running on the current thread.
+     * Does nothing outside a test method.
+     *
+     * @param message The line to add
+     */
+    public static void step(String message) {
+        ITestResult result = Reporter.getCurrentTestResult();
+        ReportEntry entry = result == null ? null : ReportEntry.of(result);
+        if (entry != null) {
+            entry.step(Status.INFO, message);
         }
     }
 
@@ -69,33 +128,36 @@ public class ExtentReportManager implements ITestListener {
      * @param result The result of the executed test method, providing information such as the method name, status, etc.
      */
     public void onTestSuccess(ITestResult result) {
-        test = extent.createTest(result.getTestClass().getName() + " - " + result.getName());
-        test.assignCategory(result.getMethod().getGroups());
-        test.log(Status.PASS, result.getName() + " executed successfully.");
+        ReportEntry entry = ReportEntry.of(result, journal);
+        entry.step(Status.PASS, result.getName() + " executed successfully.");
+        entry.finish(Status.PASS);
     }
 
     /**
      * This method is invoked when a test method fails.
      * It logs the failure and attempts to capture a screenshot of the failure state.
+     * The screenshot is stored in the background and linked once it is on disk.
      *
      * @param result The result of the failed test method, providing details such as the failure cause.
      */
     public void onTestFailure(ITestResult result) {
-        test = extent.createTest(result.getTestClass().getName() + " - " + result.getName());
-        test.assignCategory(result.getMethod().getGroups());
-        test.log(Status.FAIL, result.getName() + " execution failed.");
-        test.log(Status.INFO, result.getThrowable().getMessage());
+        ReportEntry entry = ReportEntry.of(result, journal);
+        entry.step(Status.FAIL, result.getName() + " execution failed.");
+        entry.step(Status.INFO, result.getThrowable() != null ? result.getThrowable().getMessage() : "No exception message available.");
 
-        try {
-            String imgPath = new Base().captureScreen(result.getName());
-            if (imgPath != null && !imgPath.isEmpty()) {
-                test.addScreenCaptureFromPath(imgPath); // Attach the screenshot
+        // The listener runs on the failing test's thread, so the test instance sees that thread's browser
+        Base base = result.getInstance() instanceof Base ? (Base) result.getInstance() : new Base();
+        attachments.add(base.captureScreen(result.getName()).handle((imgPath, error) -> {
+            if (imgPath != null) {
+                entry.screenshot(imgPath.toString()); // Attach the screenshot
+            } else if (error != null) {
+                entry.step(Status.INFO, "Failed to capture screenshot: " + error.getMessage());
             } else {
-                test.log(Status.INFO, "Screenshot capture failed or screenshot path is invalid.");
+                entry.step(Status.INFO, "Screenshot capture failed or screenshot path is invalid.");
             }
-        } catch (IOException e) {
-            test.info("Failed to capture screenshot: " + e.getMessage());
-        }
+            return null;
+        }));
+        entry.finish(Status.FAIL);
     }
 
     /**
@@ -105,35 +167,172 @@ public class ExtentReportManager implements ITestListener {
      * @param result The result of the skipped test method, providing details such as the skip cause.
      */
     public void onTestSkipped(ITestResult result) {
-        test = extent.createTest(result.getTestClass().getName() + " - " + result.getName());
-        test.assignCategory(result.getMethod().getGroups());
-        test.log(Status.SKIP, result.getName() + " was skipped.");
-        test.log(Status.INFO, result.getThrowable() != null ? result.getThrowable().getMessage() : "No exception message available.");
+        ReportEntry entry = ReportEntry.of(result, journal);
+        entry.step(Status.SKIP, result.getName() + " was skipped.");
+        entry.step(Status.INFO, result.getThrowable() != null ? result.getThrowable().getMessage() : "No exception message available.");
+        entry.finish(Status.SKIP);
     }
 
     /**
      * This method is invoked at the end of the test execution and finalizes the Extent report.
-     * It attempts to automatically open the report in the browser.
+     * It closes the journal, builds the HTML report from it and attempts to automatically open the report in the browser.
      *
      * @param testContext The context of the test execution, providing details of all executed tests.
      */
     public void onFinish(ITestContext testContext) {
-        extent.flush(); // Save the report
+        journal.info("Driver Pool", DriverPool.getInstance().stats());
+        journal.info("Browser Launch Times", DriverFactory.launchStats());
+        journal.info("Network Mode", NetworkMode.summary());
+        journal.info("Element Cache", ElementCache.stats());
+        journal.info("Page Probes", PageProbe.stats());
+        journal.info("Page Load Timings", PageTimings.summary());
+        journal.info("Form Fill Times", FormFill.summary());
+        journal.info("Wait Times", "total " + WaitStats.totalMillis() + " ms " + WaitStats.summary());
+        journal.info("Absence Checks Saved", WaitStats.savedSummary());
+        journal.info("Excel Loads", ExcelReader.stats());
+        awaitAttachments(); // Screenshots are linked once they are on disk
+        journal.info("Screenshots", ScreenshotStore.stats());
+        journal.info("Command Latency", CommandTimings.summary());
+        journal.info("Slowest Commands", CommandTimings.slowest(10));
+        try {
+            // Every command/page/locator histogram, for tooling that compares runs
+            CommandTimings.writeJson(Path.of("reports", reportName.replace(".html", "-commands.json")));
+            PageTimings.writeJson(Path.of("reports", reportName.replace(".html", "-pages.json")));
+        } catch (IOException e) {
+            System.err.println("Failed to write command latencies or page timings: " + e.getMessage());
+        }
+        recordPerformance(testContext);
+        journal.close(); // Write the remaining events
+        logger.info("Result journal: " + journal.stats());
 
-        String pathOfExtentReport = System.getProperty("user.dir") + "\\reports\\" + reportName;
-        File extentReport = new File(pathOfExtentReport);
+        File extentReport = Path.of("reports", reportName).toAbsolutePath().toFile();
 
         try {
+            extent = buildReport(journal.file(), extentReport.toPath()); // Save the report
+
             if (Desktop.isDesktopSupported()) {
                 Desktop.getDesktop().browse(extentReport.toURI());
             } else {
                 System.out.println("Desktop is not supported. Please open the report manually: " + extentReport.getAbsolutePath());
             }
         } catch (IOException e) {
-            System.err.println("Failed to open report: " + e.getMessage());
+            System.err.println("Failed to build or open report: " + e.getMessage());
         }
     }
 
+    /**
+     * Adds this run's durations to the browser's history and journals how they compare to the
+     * baseline as a trend table; the entry is a warning when anything got slower.
+     */
+    private void recordPerformance(ITestContext testContext) {
+        PerfHistory history = PerfHistory.forSuite();
+        if (history.gate() == PerfHistory.Gate.OFF) {
+            return;
+        }
+        String browser = testContext.getCurrentXmlTest().getParameter("br");
+        try {
+            List<PerfHistory.Trend> trends = history.record(browser == null ? "chrome" : browser,
+                    PerfHistory.metrics(testContext, CommandTimings.percentiles(95)));
+            long slower = trends.stream().filter(PerfHistory.Trend::regressed).count();
+            journal.info("Performance Baseline", slower + " of " + trends.size() + " metrics slower than the baseline");
+            if (!trends.isEmpty()) {
+                journal.table("Performance Trend", slower > 0 ? Status.WARNING.name() : Status.PASS.name(), history.table(trends));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to update the performance history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for screenshots still being stored, so their links are journaled before it closes.
+     */
+    private void awaitAttachments() {
+        try {
+            CompletableFuture.allOf(attachments.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Screenshots not stored in time: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        attachments.removeIf(CompletableFuture::isDone);
+    }
+
+    /**
+     * Builds the HTML report from a result journal, replaying it one event at a time.
+     *
+     * @param journal the journal file
+     * @param html    the report file to write
+     * @return the report, already flushed
+     * @throws IOException if the journal cannot be read
+     */
+    public static ExtentReports buildReport(Path journal, Path html) throws IOException {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(html.toString());
+        sparkReporter.config().setDocumentTitle("OpenCart Automation Report");
+        sparkReporter.config().setReportName("OpenCart Functional Testing");
+        sparkReporter.config().setTheme(Theme.DARK);
+
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(sparkReporter);
+
+        Map<Long, ExtentTest> tests = new HashMap<>(); // Screenshots can arrive after their test's end event
+        ResultJournal.read(journal, event -> {
+            ExtentTest test = event.get("id") == null ? null : tests.get(((Number) event.get("id")).longValue());
+            Date time = new Date(((Number) event.get("time")).longValue());
+            switch ((String) event.get("event")) {
+                case "info" -> extent.setSystemInfo((String) event.get("name"), String.valueOf(event.get("value")));
+                case "table" -> {
+                    List<?> rows = (List<?>) event.get("rows");
+                    String[][] cells = new String[rows.size()][];
+                    for (int i = 0; i < cells.length; i++) {
+                        cells[i] = ((List<?>) rows.get(i)).stream().map(String::valueOf).toArray(String[]::new);
+                    }
+                    ExtentTest table = extent.createTest((String) event.get("name"));
+                    table.getModel().setStartTime(time);
+                    table.log(Status.valueOf((String) event.get("status")), MarkupHelper.createTable(cells));
+                }
+                case "start" -> {
+                    test = extent.createTest((String) event.get("name"));
+                    test.assignCategory(((List<?>) event.get("groups")).toArray(String[]::new));
+                    test.getModel().setStartTime(time);
+                    tests.put(((Number) event.get("id")).longValue(), test);
+                }
+                case "step" -> {
+                    if (test != null) {
+                        test.log(Status.valueOf((String) event.get("status")), String.valueOf(event.get("details")));
+                        List<Log> logs = test.getModel().getLogs();
+                        logs.get(logs.size() - 1).setTimestamp(time);
+                    }
+                }
+                case "screenshot" -> {
+                    if (test != null) {
+                        test.addScreenCaptureFromPath((String) event.get("path"));
+                    }
+                }
+                case "end" -> {
+                    if (test != null) {
+                        test.getModel().setEndTime(time);
+                    }
+                }
+                default -> {
+                    // Events from newer versions are ignored
+                }
+            }
+        });
+        extent.flush();
+        return extent;
+    }
+
+    /**
+     * Builds the HTML report of a run that did not finish, from its journal.
+     *
+     * @param args the journal path
+     * @throws IOException if the journal cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path journal = Path.of(args[0]);
+        buildReport(journal, journal.resolveSibling(journal.getFileName().toString().replace(".jsonl", ".html")));
+    }
+
     // Email functionality commented out; consider adding back if needed
 //        try {
 //            URL url = new URL("file:///" + System.getProperty("user.dir") + "\\reports\\" + reportName);
@@ -0,0 +1,339 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonOutput;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PerfHistory keeps the durations of past runs and compares every run against them. Each browser
+ * has a JSON Lines file (perf-history/&lt;browser&gt;.jsonl by default) with one line per run mapping
+ * metric names to milliseconds: the median duration of each passed test method, e.g.
+ * "AddToCartPageTest.clickProductToCart", and the p95 of each WebDriver command, e.g.
+ * "command WebElement.click".
+ * <p>
+ * A metric's baseline is the p95 of its values over the last baselineRuns runs. It counts as a
+ * regression once it has at least minRuns past values and the current value exceeds the baseline
+ * by more than the tolerance and by at least minDeltaMs, so jitter on fast steps is not flagged.
+ * The gate decides what a regression does: "off" ignores it, "flag" reports it and "fail" also
+ * fails the suite at its end.
+ * <p>
+ * Each PerfHistory has its own directory, settings and regressions. The suite's history is the one
+ * configure() sets up from config.properties and forSuite() returns; other instances, e.g. in tests,
+ * never touch it.
+ */
+public final class PerfHistory {
+
+    private static final Logger logger = LogManager.getLogger(PerfHistory.class);
+
+    private static final Json JSON = new Json();
+
+    /**
+     * What a regression does to the run.
+     */
+    public enum Gate { OFF, FLAG, FAIL }
+
+    /**
+     * One metric of the current run next to its history.
+     *
+     * @param metric    the metric name
+     * @param current   this run's value in milliseconds
+     * @param baseline  the p95 of the past values in milliseconds, or NaN without history
+     * @param runs      the number of past values the baseline is based on
+     * @param recent    the most recent past values, oldest first
+     * @param regressed whether the current value is beyond the tolerance
+     */
+    public record Trend(String metric, double current, double baseline, int runs, List<Double> recent, boolean regressed) {
+    }
+
+    // One line of a history file
+    private record Run(long time, Map<String, Double> metrics) {
+    }
+
+    // The suite's history, replaced by configure() when its settings change
+    private static volatile PerfHistory suite = new PerfHistory(Path.of("perf-history"), 10, 3, 20, 250, "flag");
+
+    // Regressions of every browser recorded here in this run, for the gate at suite end
+    private final Queue<String> regressions = new ConcurrentLinkedQueue<>();
+
+    private final Path directory;
+    private final int baselineRuns;
+    private final int minRuns;
+    private final double tolerance;
+    private final long minDeltaMs;
+    private final int keepRuns;
+    private final Gate gate;
+
+    /**
+     * Creates a history with its own directory and regression settings.
+     *
+     * @param dir          the directory holding one history file per browser
+     * @param runs         the number of past runs the baseline is computed over
+     * @param minimumRuns  the fewest past values a metric needs before it can regress
+     * @param tolerancePct how far, in percent, a metric may exceed its baseline
+     * @param minDelta     the smallest increase in milliseconds that counts as a regression
+     * @param gateMode     "off", "flag" or "fail"
+     */
+    public PerfHistory(Path dir, int runs, int minimumRuns, double tolerancePct, long minDelta, String gateMode) {
+        directory = dir;
+        baselineRuns = Math.max(1, runs);
+        minRuns = Math.max(1, minimumRuns);
+        tolerance = tolerancePct / 100.0;
+        minDeltaMs = minDelta;
+        keepRuns = Math.max(50, baselineRuns * 5);
+        gate = Gate.valueOf(gateMode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Sets where the suite's history is kept and when a metric counts as a regression. Called
+     * again with the same settings, e.g. by every test class, it keeps the current history and
+     * the regressions found so far.
+     *
+     * @param dir          the directory holding one history file per browser
+     * @param runs         the number of past runs the baseline is computed over
+     * @param minimumRuns  the fewest past values a metric needs before it can regress
+     * @param tolerancePct how far, in percent, a metric may exceed its baseline
+     * @param minDelta     the smallest increase in milliseconds that counts as a regression
+     * @param gateMode     "off", "flag" or "fail"
+     */
+    public static synchronized void configure(Path dir, int runs, int minimumRuns, double tolerancePct, long minDelta,
+                                              String gateMode) {
+        PerfHistory configured = new PerfHistory(dir, runs, minimumRuns, tolerancePct, minDelta, gateMode);
+        if (!configured.sameSettings(suite)) {
+            configured.regressions.addAll(suite.regressions);
+            suite = configured;
+        }
+    }
+
+    /**
+     * @return the suite's history, as last configured
+     */
+    public static PerfHistory forSuite() {
+        return suite;
+    }
+
+    private boolean sameSettings(PerfHistory other) {
+        return directory.equals(other.directory) && baselineRuns == other.baselineRuns && minRuns == other.minRuns
+                && tolerance == other.tolerance && minDeltaMs == other.minDeltaMs && gate == other.gate;
+    }
+
+    /**
+     * @return the configured gate
+     */
+    public Gate gate() {
+        return gate;
+    }
+
+    /**
+     * @return the regressions found by this history in this run so far, one line each
+     */
+    public List<String> regressions() {
+        return List.copyOf(regressions);
+    }
+
+    /**
+     * Collects the durations of a finished &lt;test&gt;: the median of each test method's passed
+     * invocations, so every data provider row counts, and the p95 of each WebDriver command.
+     *
+     * @param context  the finished test's context
+     * @param commands the command percentiles, e.g. from CommandTimings.percentiles(95)
+     * @return the metrics in milliseconds, sorted by name
+     */
+    public static Map<String, Double> metrics(ITestContext context, Map<String, Double> commands) {
+        Map<String, List<Double>> durations = new TreeMap<>();
+        for (ITestResult result : context.getPassedTests().getAllResults()) {
+            durations.computeIfAbsent(result.getTestClass().getRealClass().getSimpleName() + "." + result.getName(),
+                    k -> new ArrayList<>()).add((double) (result.getEndMillis() - result.getStartMillis()));
+        }
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        durations.forEach((test, values) -> metrics.put(test, percentile(values, 50)));
+        commands.forEach((command, millis) -> metrics.put("command " + command, millis));
+        return metrics;
+    }
+
+    /**
+     * Compares a run's metrics against the browser's history, then appends them to it.
+     * Regressions are logged and kept for the gate unless it is off.
+     *
+     * @param browser the browser the run used
+     * @param metrics the run's metrics in milliseconds
+     * @return one trend per metric, regressions first
+     * @throws IOException if the history cannot be read or written
+     */
+    public synchronized List<Trend> record(String browser, Map<String, Double> metrics) throws IOException {
+        Path file = directory.resolve(browser.replaceAll("[^A-Za-z0-9._-]", "_") + ".jsonl");
+        Deque<Run> history = read(file, keepRuns);
+        List<Map<String, Double>> past = new ArrayList<>();
+        history.forEach(run -> past.add(run.metrics()));
+        List<Trend> trends = compare(past, metrics);
+
+        if (!metrics.isEmpty()) {
+            Run run = new Run(System.currentTimeMillis(), metrics);
+            history.addLast(run);
+            if (history.size() > keepRuns) {
+                rewrite(file, history); // Drop the oldest runs so the file stays small
+            } else {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Files.writeString(file, toLine(run) + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        }
+
+        if (gate != Gate.OFF) {
+            for (Trend trend : trends) {
+                if (trend.regressed()) {
+                    String line = String.format(Locale.ROOT, "%s %s: %.0f ms against a baseline of %.0f ms",
+                            browser, trend.metric(), trend.current(), trend.baseline());
+                    regressions.add(line);
+                    logger.warn("Slower than the baseline: " + line);
+                }
+            }
+        }
+        return trends;
+    }
+
+    /**
+     * Compares metrics against past runs.
+     *
+     * @param history past runs, oldest first
+     * @param metrics the current run's metrics
+     * @return one trend per metric, regressions first, then by name
+     */
+    List<Trend> compare(List<Map<String, Double>> history, Map<String, Double> metrics) {
+        List<Map<String, Double>> window = history.subList(Math.max(0, history.size() - baselineRuns), history.size());
+        List<Trend> trends = new ArrayList<>();
+        metrics.forEach((metric, current) -> {
+            List<Double> past = new ArrayList<>();
+            for (Map<String, Double> run : window) {
+                Double value = run.get(metric);
+                if (value != null) {
+                    past.add(value);
+                }
+            }
+            double baseline = past.isEmpty() ? Double.NaN : percentile(past, 95);
+            boolean regressed = past.size() >= minRuns
+                    && current > baseline * (1 + tolerance)
+                    && current - baseline >= minDeltaMs;
+            trends.add(new Trend(metric, current, baseline, past.size(),
+                    past.subList(Math.max(0, past.size() - 5), past.size()), regressed));
+        });
+        trends.sort((a, b) -> a.regressed() != b.regressed() ? (a.regressed() ? -1 : 1) : a.metric().compareTo(b.metric()));
+        return trends;
+    }
+
+    /**
+     * Formats trends as a table with a header row, for the report.
+     *
+     * @param trends the trends
+     * @return the rows
+     */
+    public List<List<String>> table(List<Trend> trends) {
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(List.of("Metric", "Now (ms)", "Baseline p95 (ms)", "Change", "Runs", "Recent (ms)", "Status"));
+        for (Trend t : trends) {
+            boolean known = !Double.isNaN(t.baseline());
+            List<String> recent = new ArrayList<>();
+            t.recent().forEach(value -> recent.add(String.format(Locale.ROOT, "%.0f", value)));
+            rows.add(List.of(t.metric(),
+                    String.format(Locale.ROOT, "%.0f", t.current()),
+                    known ? String.format(Locale.ROOT, "%.0f", t.baseline()) : "-",
+                    known && t.baseline() > 0 ? String.format(Locale.ROOT, "%+.0f%%", (t.current() / t.baseline() - 1) * 100) : "-",
+                    String.valueOf(t.runs()),
+                    recent.isEmpty() ? "-" : String.join(" > ", recent),
+                    t.regressed() ? "SLOWER" : t.runs() < minRuns ? "NEW" : "OK"));
+        }
+        return rows;
+    }
+
+    /**
+     * Nearest-rank percentile, e.g. 95 for p95.
+     */
+    static double percentile(List<Double> values, double percentile) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * Reads the last runs of a history file; unreadable lines, such as one cut off by a crash, are skipped.
+     */
+    private static Deque<Run> read(Path file, int limit) throws IOException {
+        Deque<Run> runs = new ArrayDeque<>();
+        if (!Files.exists(file)) {
+            return runs;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Map<String, Object> run = JSON.toType(line, Json.MAP_TYPE);
+                    Map<String, Double> metrics = new LinkedHashMap<>();
+                    ((Map<?, ?>) run.get("metrics")).forEach((name, value) ->
+                            metrics.put((String) name, ((Number) value).doubleValue()));
+                    runs.addLast(new Run(((Number) run.get("time")).longValue(), metrics));
+                    if (runs.size() > limit) {
+                        runs.removeFirst();
+                    }
+                } catch (JsonException | ClassCastException | NullPointerException e) {
+                    logger.warn("Skipping unreadable history line in " + file.getFileName() + ": " + e.getMessage());
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Replaces a history file with its last keepRuns runs, through a temporary file so a crash keeps the old one.
+     */
+    private void rewrite(Path file, Deque<Run> history) throws IOException {
+        while (history.size() > keepRuns) {
+            history.removeFirst();
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Run run : history) {
+                out.write(toLine(run));
+                out.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String toLine(Run run) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("time", run.time());
+        fields.put("metrics", run.metrics());
+        StringBuilder line = new StringBuilder(256);
+        try (JsonOutput out = JSON.newOutput(line)) {
+            out.setPrettyPrint(false);
+            out.write(fields);
+        }
+        return line.toString();
+    }
+}
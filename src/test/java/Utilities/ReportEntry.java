@@ -0,0 +1,67 @@
+package Utilities;
+
+import com.aventstack.extentreports.Status;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReportEntry is the report handle of one test invocation. It is created when the test starts and
+ * kept as an attribute of its ITestResult, so every parallel invocation, including each data
+ * provider row, logs under its own id. Lines go straight to the ResultJournal; the entry itself
+ * keeps nothing but its id, so memory does not grow with the number of steps.
+ */
+final class ReportEntry {
+
+    static final String ATTRIBUTE = ReportEntry.class.getName();
+
+    private static final AtomicLong ids = new AtomicLong();
+
+    final long id = ids.incrementAndGet();
+    final long started;
+    private final ResultJournal journal;
+
+    private ReportEntry(ITestResult result, ResultJournal journal) {
+        this.journal = journal;
+        this.started = result.getStartMillis() > 0 ? result.getStartMillis() : System.currentTimeMillis();
+        journal.start(id, result.getTestClass().getName() + " - " + result.getName(),
+                result.getMethod().getGroups(), Thread.currentThread().getName(), started);
+    }
+
+    /**
+     * Returns the entry of a test invocation, opening it in the journal on first use.
+     * Tests skipped before they started get their entry here too.
+     *
+     * @param result  the invocation's result
+     * @param journal the journal to write to
+     * @return the invocation's entry
+     */
+    static ReportEntry of(ITestResult result, ResultJournal journal) {
+        ReportEntry entry = of(result);
+        if (entry == null) {
+            entry = new ReportEntry(result, journal);
+            result.setAttribute(ATTRIBUTE, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @param result the invocation's result
+     * @return the invocation's entry, or null if it has none yet
+     */
+    static ReportEntry of(ITestResult result) {
+        return (ReportEntry) result.getAttribute(ATTRIBUTE);
+    }
+
+    void step(Status status, String details) {
+        journal.step(id, status.name(), details);
+    }
+
+    void screenshot(String path) {
+        journal.screenshot(id, path);
+    }
+
+    void finish(Status status) {
+        journal.end(id, status.name(), System.currentTimeMillis() - started);
+    }
+}
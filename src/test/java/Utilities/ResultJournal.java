@@ -0,0 +1,294 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * ResultJournal appends test events to a JSON Lines file as they happen: one JSON object per line
+ * with an "event" name (info, table, start, step, screenshot, end) and a "time" in epoch milliseconds.
+ * Test threads only put events on a bounded queue; a single background thread writes them and
+ * flushes after every batch, so a crash loses at most the events still in the queue and the run's
+ * memory use does not grow with the number of tests.
+ * <p>
+ * When the queue is full (capacity from -Djournal.capacity, default 8192), INFO steps are shed and
+ * counted in stats(); they are the only events a report can do without. Every other event, such as
+ * a test's start, end, FAIL step or screenshot, waits for room for as long as the writer is running.
+ * read() replays a journal line by line.
+ */
+public final class ResultJournal implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ResultJournal.class);
+
+    private static final Json JSON = new Json();
+    private static final String END = "";  // Tells the writer to stop; compared by identity
+    private static final int BATCH = 256;
+
+    private final Path file;
+    private final BlockingQueue<String> queue;
+    private final Thread writer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    private ResultJournal(Path file, int capacity) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "result-journal");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens a journal for appending and starts its writer thread.
+     *
+     * @param file the journal file; created with its directories if missing
+     * @return the open journal
+     * @throws IOException if the directory cannot be created
+     */
+    public static ResultJournal open(Path file) throws IOException {
+        return open(file, Integer.getInteger("journal.capacity", 8192));
+    }
+
+    /**
+     * Opens a journal for appending with a given queue capacity and starts its writer thread.
+     *
+     * @param file     the journal file; created with its directories if missing
+     * @param capacity the most events waiting to be written
+     * @return the open journal
+     * @throws IOException if the directory cannot be created
+     */
+    public static ResultJournal open(Path file, int capacity) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        ResultJournal journal = new ResultJournal(file, capacity);
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * @return the journal file
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Records a run-wide name/value pair, e.g. the browser or a timing summary.
+     *
+     * @param name  the name shown in the report
+     * @param value the value
+     */
+    public void info(String name, String value) {
+        append(event("info", "name", name, "value", value), false);
+    }
+
+    /**
+     * Records a run-wide table shown as its own report entry, e.g. the performance trend.
+     *
+     * @param title  the entry's name
+     * @param status the entry's status, e.g. PASS or WARNING
+     * @param rows   the table, header row first
+     */
+    public void table(String title, String status, List<List<String>> rows) {
+        append(event("table", "name", title, "status", status, "rows", rows), false);
+    }
+
+    /**
+     * Records the start of a test invocation.
+     *
+     * @param id     the invocation's id, unique within the journal
+     * @param name   the name shown in the report
+     * @param groups the test's groups
+     * @param thread the thread running it
+     * @param time   the start time in epoch milliseconds
+     */
+    public void start(long id, String name, String[] groups, String thread, long time) {
+        Map<String, Object> event = event("start", "id", id, "name", name, "groups", List.of(groups), "thread", thread);
+        event.put("time", time);
+        append(event, false);
+    }
+
+    /**
+     * Records one report line of a test invocation. INFO lines are shed when the queue is full.
+     *
+     * @param id      the invocation's id
+     * @param status  the line's status, e.g. INFO or FAIL
+     * @param details the message
+     */
+    public void step(long id, String status, String details) {
+        append(event("step", "id", id, "status", status, "details", details), "INFO".equals(status));
+    }
+
+    /**
+     * Records a screenshot attached to a test invocation.
+     *
+     * @param id   the invocation's id
+     * @param path the image path
+     */
+    public void screenshot(long id, String path) {
+        append(event("screenshot", "id", id, "path", path), false);
+    }
+
+    /**
+     * Records the end of a test invocation.
+     *
+     * @param id       the invocation's id
+     * @param status   the final status, e.g. PASS
+     * @param duration the run time in milliseconds
+     */
+    public void end(long id, String status, long duration) {
+        append(event("end", "id", id, "status", status, "duration", duration), false);
+    }
+
+    private static Map<String, Object> event(String type, Object... fields) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("event", type);
+        event.put("time", System.currentTimeMillis());
+        for (int i = 0; i < fields.length; i += 2) {
+            if (fields[i + 1] != null) {
+                event.put((String) fields[i], fields[i + 1]);
+            }
+        }
+        return event;
+    }
+
+    private void append(Map<String, Object> event, boolean sheddable) {
+        StringBuilder line = new StringBuilder(128);
+        try (JsonOutput out = JSON.newOutput(line)) {
+            out.setPrettyPrint(false);
+            out.write(event);
+        }
+        if (closed) {
+            lost.incrementAndGet();
+        } else if (sheddable) {
+            if (!queue.offer(line.toString())) {
+                dropped.incrementAndGet();
+            }
+        } else if (!offer(line.toString())) {
+            lost.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for room in the queue while the writer is still running, so an event is only lost if
+     * the journal can no longer be written.
+     */
+    private boolean offer(String line) {
+        try {
+            while (writer.isAlive()) {
+                if (queue.offer(line, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Writes queued lines until close(), flushing after each batch.
+     */
+    private void drain() {
+        List<String> batch = new ArrayList<>(BATCH);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH - 1);
+                boolean end = false;
+                for (String line : batch) {
+                    if (line == END) {
+                        end = true;
+                        continue;
+                    }
+                    out.write(line);
+                    out.newLine();
+                    written.incrementAndGet();
+                }
+                out.flush();
+                batch.clear();
+                if (end) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            logger.error("Result journal " + file + " could not be written: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the remaining events and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (writer.isAlive()) {
+                queue.put(END);
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of events written, INFO steps shed under load, and other events lost
+     * because the journal was closed or could not be written
+     */
+    public String stats() {
+        return String.format("written=%d, shedInfo=%d, lost=%d%s, file=%s", written.get(), dropped.get(), lost.get(),
+                failed.get() > 0 ? " (write failed)" : "", file);
+    }
+
+    /**
+     * Replays a journal, one event at a time, without loading the whole file.
+     * Unreadable lines, such as one cut off by a crash, are skipped.
+     *
+     * @param file    the journal file
+     * @param onEvent called with each event's fields
+     * @throws IOException if the file cannot be read
+     */
+    public static void read(Path file, Consumer<Map<String, Object>> onEvent) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    onEvent.accept(JSON.toType(line, Json.MAP_TYPE));
+                } catch (JsonException e) {
+                    // A run that crashed mid-write can leave a truncated last line
+                    logger.warn("Skipping unreadable journal line in " + file.getFileName() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScreenshotStore writes screenshots in the background. The test thread only hands over the PNG
+ * bytes it got from the driver; hashing, optional downscaling or JPEG recompression and the NIO
+ * write happen on a small executor, and the returned future completes with the stored path.
+ * <p>
+ * Identical images (same SHA-256) are stored once and share a path. A per-run disk budget caps
+ * the bytes written; captures beyond it are counted and not stored. Settings come from
+ * config.properties: screenshots.maxWidth (0 keeps the size), screenshots.format (png or jpg)
+ * and screenshots.budgetMb.
+ */
+public final class ScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final AtomicInteger threads = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, task -> {
+        Thread thread = new Thread(task, "screenshot-writer-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Stored images by content hash, so repeated captures of the same screen share one file
+    private static final Map<String, CompletableFuture<Path>> byHash = new ConcurrentHashMap<>();
+
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong stored = new AtomicLong();
+    private static final AtomicLong deduplicated = new AtomicLong();
+    private static final AtomicLong overBudget = new AtomicLong();
+    private static final AtomicLong writeNanos = new AtomicLong();
+
+    private static volatile Path directory = Path.of(System.getProperty("user.dir"), "screenshots");
+    private static volatile int maxWidth = 0;
+    private static volatile String format = "png";
+    private static volatile long budgetBytes = 200L * 1024 * 1024;
+
+    private ScreenshotStore() {
+    }
+
+    /**
+     * Sets how screenshots are stored.
+     *
+     * @param dir       the directory to write to
+     * @param width     the largest width to keep; wider images are scaled down, 0 keeps the size
+     * @param imageType "png", or "jpg" to recompress
+     * @param budgetMb  the most megabytes to write per run
+     */
+    public static void configure(Path dir, int width, String imageType, long budgetMb) {
+        directory = dir;
+        maxWidth = width;
+        format = "jpg".equalsIgnoreCase(imageType) || "jpeg".equalsIgnoreCase(imageType) ? "jpg" : "png";
+        budgetBytes = budgetMb * 1024 * 1024;
+    }
+
+    /**
+     * Hands a screenshot to the background writer.
+     *
+     * @param name the name the file starts with, e.g. the test name
+     * @param png  the PNG bytes from the driver
+     * @return a future completing with the stored path, or with null if the disk budget is used up
+     */
+    public static CompletableFuture<Path> store(String name, byte[] png) {
+        String stamp = LocalDateTime.now().format(STAMP);
+        return CompletableFuture.supplyAsync(() -> hash(png), executor)
+                .thenCompose(hash -> {
+                    CompletableFuture<Path> write = new CompletableFuture<>();
+                    CompletableFuture<Path> existing = byHash.putIfAbsent(hash, write);
+                    if (existing != null) {
+                        deduplicated.incrementAndGet();
+                        return existing;
+                    }
+                    try {
+                        write.complete(write(name + "_" + stamp + "_" + hash.substring(0, 8), png));
+                    } catch (RuntimeException e) {
+                        byHash.remove(hash, write);
+                        write.completeExceptionally(e);
+                    }
+                    return write;
+                });
+    }
+
+    private static Path write(String baseName, byte[] png) {
+        long start = System.nanoTime();
+        try {
+            byte[] image = process(png);
+            if (bytesWritten.addAndGet(image.length) > budgetBytes) {
+                bytesWritten.addAndGet(-image.length);
+                overBudget.incrementAndGet();
+                logger.warn("Screenshot budget of " + budgetBytes / (1024 * 1024) + " MB used up; not storing " + baseName);
+                return null;
+            }
+            Files.createDirectories(directory);
+            Path file = directory.resolve(baseName.replaceAll("[^A-Za-z0-9._-]", "_") + "." + format);
+            Files.write(file, image, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            stored.incrementAndGet();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store screenshot " + baseName, e);
+        } finally {
+            writeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Scales the image down to maxWidth and re-encodes it as JPEG when configured; otherwise
+     * keeps the driver's PNG bytes untouched.
+     */
+    private static byte[] process(byte[] png) throws IOException {
+        if (maxWidth <= 0 && format.equals("png")) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        if (maxWidth > 0 && image.getWidth() > maxWidth) {
+            int height = Math.max(1, image.getHeight() * maxWidth / image.getWidth());
+            BufferedImage scaled = new BufferedImage(maxWidth, height,
+                    format.equals("jpg") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, maxWidth, height, null);
+            g.dispose();
+            image = scaled;
+        } else if (format.equals("jpg") && image.getColorModel().hasAlpha()) {
+            BufferedImage opaque = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = opaque.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+            image = opaque;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+        if (format.equals("jpg")) {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.8f);
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        } else {
+            ImageIO.write(image, "png", out);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the number of screenshots stored, deduplicated and refused over budget, and the bytes written
+     */
+    public static String stats() {
+        long count = stored.get();
+        return String.format("stored=%d, deduplicated=%d, overBudget=%d, written=%d KB, avgWrite=%.1f ms",
+                count, deduplicated.get(), overBudget.get(), bytesWritten.get() / 1024,
+                count == 0 ? 0 : writeNanos.get() / 1_000_000.0 / count);
+    }
+}
@@ -0,0 +1,140 @@
+package Utilities;
+
+import PageObjects.HomePage;
+import PageObjects.LoginPage;
+import PageObjects.MyAccountPage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionCache signs a customer in through the UI once per credential, captures the resulting
+ * cookies and web storage, and restores them into later sessions. A restored session that the
+ * server no longer accepts (expired or logged out elsewhere) triggers a fresh UI login.
+ * Tests that verify the login UI itself should keep using the page objects directly.
+ */
+public class SessionCache {
+
+    private static final Logger logger = LogManager.getLogger(SessionCache.class);
+
+    // OpenCart route of the account page, used to verify a restored session
+    static final String ACCOUNT_ROUTE = "index.php?route=account/account";
+
+    // Captured sessions keyed by "baseUrl|email"
+    private static final Map<String, CapturedSession> sessions = new ConcurrentHashMap<>();
+    // One lock per credential so parallel tests don't log the same customer in twice
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Cookies and storage captured right after a successful UI login.
+     */
+    record CapturedSession(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+    }
+
+    /**
+     * Makes the given session signed in as the customer and leaves it on the My Account page.
+     * A cached session is restored when available; otherwise the customer logs in through the UI.
+     *
+     * @param driver   The WebDriver session to sign in
+     * @param baseUrl  The storefront URL, e.g. the "url2" property
+     * @param email    The customer's email
+     * @param password The customer's password
+     * @throws IllegalStateException if the UI login does not reach the My Account page
+     */
+    public static void signIn(WebDriver driver, String baseUrl, String email, String password) {
+        String key = baseUrl + "|" + email;
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            CapturedSession cached = sessions.get(key);
+            if (cached != null && restore(driver, baseUrl, cached)) {
+                logger.info("Restored cached session for " + email);
+                return;
+            }
+            if (cached != null) {
+                logger.info("Cached session for " + email + " has expired, logging in again");
+                sessions.remove(key);
+            }
+            sessions.put(key, loginThroughUi(driver, baseUrl, email, password));
+        }
+    }
+
+    /**
+     * Drops the cached session for a customer, e.g. after a test changed their password.
+     *
+     * @param baseUrl The storefront URL
+     * @param email   The customer's email
+     */
+    public static void invalidate(String baseUrl, String email) {
+        sessions.remove(baseUrl + "|" + email);
+    }
+
+    private static CapturedSession loginThroughUi(WebDriver driver, String baseUrl, String email, String password) {
+        driver.get(baseUrl);
+        HomePage hp = new HomePage(driver);
+        hp.clickMyAccount();
+        hp.clickLogin();
+
+        LoginPage lp = new LoginPage(driver);
+        lp.login(email, password);
+
+        if (!new MyAccountPage(driver).isMyAccountPageExists()) {
+            throw new IllegalStateException("UI login failed for " + email);
+        }
+        logger.info("Logged in through the UI and cached the session for " + email);
+        return new CapturedSession(Set.copyOf(driver.manage().getCookies()),
+                readStorage(driver, "localStorage"), readStorage(driver, "sessionStorage"));
+    }
+
+    /**
+     * Restores cookies and storage, then checks that the server still accepts the session.
+     */
+    private static boolean restore(WebDriver driver, String baseUrl, CapturedSession session) {
+        // Cookies and storage can only be set for the origin the browser is currently on
+        if (!sameHost(driver.getCurrentUrl(), baseUrl)) {
+            driver.get(baseUrl);
+        }
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : session.cookies()) {
+            driver.manage().addCookie(cookie);
+        }
+        writeStorage(driver, "localStorage", session.localStorage());
+        writeStorage(driver, "sessionStorage", session.sessionStorage());
+
+        driver.get(baseUrl + ACCOUNT_ROUTE);
+        return new MyAccountPage(driver).isMyAccountPageExists();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readStorage(WebDriver driver, String area) {
+        Object values = ((JavascriptExecutor) driver).executeScript(
+                "var s = window[arguments[0]], out = {};"
+                        + " for (var i = 0; i < s.length; i++) { out[s.key(i)] = s.getItem(s.key(i)); }"
+                        + " return out;", area);
+        return values instanceof Map ? new HashMap<>((Map<String, String>) values) : Map.of();
+    }
+
+    private static void writeStorage(WebDriver driver, String area, Map<String, String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "var s = window[arguments[0]], v = arguments[1];"
+                        + " s.clear(); for (var k in v) { s.setItem(k, v[k]); }", area, values);
+    }
+
+    private static boolean sameHost(String currentUrl, String baseUrl) {
+        try {
+            String host = URI.create(currentUrl).getHost();
+            return host != null && host.equalsIgnoreCase(URI.create(baseUrl).getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package Utilities;
+
+import org.testng.ITestContext;
+
+/**
+ * Shard selects one contiguous slice of a data sheet's rows, so several machines or JVMs can each
+ * run part of one large dataset without coordinating. Data rows (the header excluded) are split
+ * into count ranges whose sizes differ by at most one; the split depends only on the row count,
+ * so every shard computes the same boundaries.
+ * <p>
+ * The index and count come from the shard.index and shard.count system properties, or else from
+ * suite or test parameters of the same names. shard.index also keeps TestDataFactory emails unique.
+ *
+ * @param index the zero-based shard index
+ * @param count the number of shards
+ */
+public record Shard(int index, int count) {
+
+    /**
+     * The whole sheet, used when no sharding is configured.
+     */
+    public static final Shard ALL = new Shard(0, 1);
+
+    /**
+     * @throws IllegalArgumentException if count is not positive or index is outside 0..count-1
+     */
+    public Shard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+    }
+
+    /**
+     * Returns the shard configured for a run.
+     *
+     * @param context the TestNG context whose suite XML may carry shard.index and shard.count
+     * @return the configured shard, or ALL
+     */
+    public static Shard from(ITestContext context) {
+        return of(System.getProperty("shard.index", context.getCurrentXmlTest().getParameter("shard.index")),
+                System.getProperty("shard.count", context.getCurrentXmlTest().getParameter("shard.count")));
+    }
+
+    /**
+     * Returns the shard set by system properties, for code that runs outside a test.
+     *
+     * @return the configured shard, or ALL
+     */
+    public static Shard fromSystemProperties() {
+        return of(System.getProperty("shard.index"), System.getProperty("shard.count"));
+    }
+
+    private static Shard of(String index, String count) {
+        if (count == null || count.isBlank()) {
+            return ALL;
+        }
+        return new Shard(index == null || index.isBlank() ? 0 : Integer.parseInt(index.trim()), Integer.parseInt(count.trim()));
+    }
+
+    /**
+     * @return true if this shard covers every row
+     */
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    /**
+     * Returns the first row of this shard's range, for a sheet with a header in row 0.
+     *
+     * @param rowCount the sheet's row count, header included
+     * @return the first row number, inclusive
+     */
+    public int fromRow(int rowCount) {
+        return 1 + (int) ((long) index * Math.max(rowCount - 1, 0) / count);
+    }
+
+    /**
+     * Returns the end of this shard's range, for a sheet with a header in row 0.
+     *
+     * @param rowCount the sheet's row count, header included
+     * @return the row number after the last row, exclusive
+     */
+    public int toRow(int rowCount) {
+        return 1 + (int) ((long) (index + 1) * Math.max(rowCount - 1, 0) / count);
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,197 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * StorefrontFixtures sets up storefront state with plain HTTP calls instead of driving the UI.
+ * It posts the same forms the storefront pages post (account registration, checkout/cart/add)
+ * and shares its cookies with the WebDriver session, so a test can start directly on a page
+ * whose state was seeded, e.g. the cart with a product and quantity already set.
+ */
+public class StorefrontFixtures {
+
+    private static final Logger logger = LogManager.getLogger(StorefrontFixtures.class);
+    private static final Pattern PRODUCT_ID = Pattern.compile("product_id=(\\d+)");
+
+    private final WebDriver driver;
+    private final URI baseUri;
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient client;
+
+    /**
+     * Creates fixtures bound to a WebDriver session and storefront.
+     *
+     * @param driver  The WebDriver session that should see the seeded state
+     * @param baseUrl The storefront URL, e.g. the "url2" property
+     */
+    public StorefrontFixtures(WebDriver driver, String baseUrl) {
+        this.driver = driver;
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Registers a customer account by posting the registration form.
+     *
+     * @param firstName The first name
+     * @param lastName  The last name
+     * @param email     The email address
+     * @param telephone The telephone number
+     * @param password  The password
+     * @throws IllegalStateException if the storefront does not confirm the registration
+     */
+    public void registerCustomer(String firstName, String lastName, String email, String telephone, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("firstname", firstName);
+        form.put("lastname", lastName);
+        form.put("email", email);
+        form.put("telephone", telephone);
+        form.put("password", password);
+        form.put("confirm", password);
+        form.put("newsletter", "1");
+        form.put("agree", "1");
+
+        HttpResponse<String> response = post("index.php?route=account/register", form);
+        if (!response.uri().toString().contains("route=account/success")) {
+            throw new IllegalStateException("Registration was not accepted for " + email);
+        }
+        logger.info("Registered customer over HTTP: " + email);
+    }
+
+    /**
+     * Looks up a product id through the storefront search.
+     *
+     * @param productName The product name to search for
+     * @return the id of the first product in the results
+     * @throws IllegalStateException if the search returns no products
+     */
+    public String findProductId(String productName) {
+        HttpResponse<String> response = get("index.php?route=product/search&search="
+                + URLEncoder.encode(productName, StandardCharsets.UTF_8));
+        Matcher matcher = PRODUCT_ID.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No product found for: " + productName);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Adds a product to the cart of the shared session by posting to checkout/cart/add.
+     *
+     * @param productId The product id
+     * @param quantity  The quantity to add
+     * @throws IllegalStateException if the storefront does not report success
+     */
+    public void addToCart(String productId, int quantity) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("product_id", productId);
+        form.put("quantity", String.valueOf(quantity));
+
+        HttpResponse<String> response = post("index.php?route=checkout/cart/add", form);
+        if (!response.body().contains("\"success\"")) {
+            throw new IllegalStateException("Adding product " + productId + " to the cart failed: " + response.body());
+        }
+        logger.info("Added product " + productId + " x" + quantity + " to the cart over HTTP");
+    }
+
+    /**
+     * Opens the shopping cart page in the browser, which now shows the seeded cart.
+     */
+    public void openCart() {
+        driver.get(baseUri.resolve("index.php?route=checkout/cart").toString());
+    }
+
+    private HttpResponse<String> get(String path) {
+        return send(HttpRequest.newBuilder(baseUri.resolve(path)).GET());
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    /**
+     * Sends a request inside the browser's session: browser cookies go out with the request,
+     * and any cookies the storefront sets come back into the browser.
+     */
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        pullCookiesFromBrowser();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            pushCookiesToBrowser();
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException("Fixture request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fixture request interrupted", e);
+        }
+    }
+
+    private void pullCookiesFromBrowser() {
+        onStorefront();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+            httpCookie.setPath(cookie.getPath() == null ? "/" : cookie.getPath());
+            httpCookie.setDomain(cookie.getDomain());
+            httpCookie.setVersion(0);
+            cookies.getCookieStore().add(baseUri, httpCookie);
+        }
+    }
+
+    private void pushCookiesToBrowser() {
+        for (HttpCookie httpCookie : cookies.getCookieStore().get(baseUri)) {
+            Date expiry = httpCookie.getMaxAge() > 0
+                    ? new Date(System.currentTimeMillis() + httpCookie.getMaxAge() * 1000)
+                    : null;
+            driver.manage().addCookie(new Cookie(httpCookie.getName(), httpCookie.getValue(),
+                    httpCookie.getPath() == null ? "/" : httpCookie.getPath(), expiry));
+        }
+    }
+
+    /**
+     * Cookies can only be read and written for the origin the browser is on.
+     */
+    private void onStorefront() {
+        String host;
+        try {
+            host = URI.create(driver.getCurrentUrl()).getHost();
+        } catch (IllegalArgumentException e) {
+            host = null;
+        }
+        if (host == null || !host.equalsIgnoreCase(baseUri.getHost())) {
+            driver.get(baseUri.toString());
+        }
+    }
+}
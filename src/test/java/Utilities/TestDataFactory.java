@@ -0,0 +1,159 @@
+package Utilities;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TestDataFactory produces customer records that are safe to generate from many threads at once.
+ * <p>
+ * Emails are unique across threads (shared sequence), shards (shard index) and repeated runs
+ * (run id), so parallel registration runs never collide on duplicate emails. Everything else
+ * is derived from the seed and sequence number, so a fixed "testData.seed" reproduces the same
+ * names, phones and passwords.
+ * <p>
+ * System properties: testData.seed, testData.runId (pin to reproduce emails too). The shard is
+ * resolved like Shard.from(): the shard.index system property, or else the running test's suite
+ * XML parameter, so shards configured in the suite XML get distinct emails too.
+ */
+public class TestDataFactory {
+
+    private static final long SEED = Long.getLong("testData.seed", System.nanoTime());
+    private static final String RUN_ID = System.getProperty("testData.runId", defaultRunId());
+
+    // One shared factory per shard index; several shards can run in one JVM as separate <test>s
+    private static final Map<Integer, TestDataFactory> byShard = new ConcurrentHashMap<>();
+
+    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String DIGITS = "0123456789";
+
+    private final long seed;
+    private final String runId;
+    private final int shard;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong generatedNanos = new AtomicLong();
+
+    /**
+     * A registrable customer. Values satisfy the storefront's rules: names of 1-32 characters,
+     * a valid email under 96 characters, a telephone of 3-32 digits and a 4-20 character password.
+     */
+    public record Customer(String firstName, String lastName, String email, String telephone, String password) {
+    }
+
+    /**
+     * Creates a factory. Most callers should use getInstance().
+     *
+     * @param seed  Seed for names, phones and passwords
+     * @param runId Identifier that keeps emails unique across runs
+     * @param shard Shard index that keeps emails unique across machines or JVMs
+     */
+    public TestDataFactory(long seed, String runId, int shard) {
+        this.seed = seed;
+        this.runId = runId;
+        this.shard = shard;
+    }
+
+    /**
+     * Returns the factory shared by every test of the current shard in this JVM.
+     * Outside a running test the shard comes from system properties only.
+     *
+     * @return the shared TestDataFactory
+     */
+    public static TestDataFactory getInstance() {
+        ITestResult current = Reporter.getCurrentTestResult();
+        Shard shard = current == null ? Shard.fromSystemProperties() : Shard.from(current.getTestContext());
+        return forShard(shard.index());
+    }
+
+    /**
+     * Returns the factory shared by every test of a shard in this JVM.
+     *
+     * @param index the shard index
+     * @return the shared TestDataFactory
+     */
+    public static TestDataFactory forShard(int index) {
+        return byShard.computeIfAbsent(index, i -> new TestDataFactory(SEED, RUN_ID, i));
+    }
+
+    /**
+     * Summarises every shared factory used in this JVM.
+     *
+     * @return one stats() entry per shard index
+     */
+    public static String summary() {
+        Map<Integer, String> summary = new TreeMap<>();
+        byShard.forEach((index, factory) -> summary.put(index, factory.stats()));
+        return summary.toString();
+    }
+
+    /**
+     * Generates the next unique customer.
+     *
+     * @return a new Customer
+     */
+    public Customer nextCustomer() {
+        long start = System.nanoTime();
+        long n = sequence.getAndIncrement();
+        // Each record gets its own generator, so threads never contend on a shared Random
+        SplittableRandom random = new SplittableRandom(seed + n * 0x9E3779B97F4A7C15L);
+
+        Customer customer = new Customer(
+                chars(random, UPPER, 5),
+                chars(random, UPPER, 5),
+                "qa." + runId + "." + shard + "." + Long.toString(n, 36) + "@gmail.com",
+                chars(random, DIGITS, 10),
+                chars(random, UPPER, 2) + chars(random, LOWER, 3) + chars(random, DIGITS, 3));
+        generatedNanos.addAndGet(System.nanoTime() - start);
+        return customer;
+    }
+
+    /**
+     * Generates a batch of unique customers.
+     *
+     * @param count Number of customers to generate
+     * @return the generated customers
+     */
+    public List<Customer> nextCustomers(int count) {
+        List<Customer> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(nextCustomer());
+        }
+        return batch;
+    }
+
+    /**
+     * Summarises how many records were generated and how fast.
+     *
+     * @return generated count and records per second
+     */
+    public String stats() {
+        long count = sequence.get();
+        long nanos = generatedNanos.get();
+        return String.format("generated=%d, perSecond=%.0f, runId=%s, shard=%d",
+                count, nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos, runId, shard);
+    }
+
+    private static String chars(SplittableRandom random, String alphabet, int length) {
+        char[] out = new char[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(out);
+    }
+
+    /**
+     * Start time plus process id: distinct for every run, even several JVMs started in the same millisecond.
+     */
+    private static String defaultRunId() {
+        return Long.toString(System.currentTimeMillis(), 36) + "-" + Long.toString(ManagementFactory.getRuntimeMXBean().getPid(), 36);
+    }
+}
@@ -0,0 +1,119 @@
+package Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * XlsxParser reads one sheet in a single streaming pass with POI's event (SAX) model, keeping only
+ * the formatted cell values. It is the only class of the data layer that touches POI's reading
+ * classes, so POI is loaded only when a workbook actually has to be parsed.
+ */
+final class XlsxParser {
+
+    private static final Logger logger = LogManager.getLogger(XlsxParser.class);
+
+    private XlsxParser() {
+    }
+
+    /**
+     * Parses a sheet, handing each row to a listener as soon as it has been read.
+     *
+     * @param file      the Excel file
+     * @param sheetName the name of the sheet
+     * @param onRow     called with every row, including empty rows left as gaps
+     * @return the sheet's cell values
+     * @throws UncheckedIOException if the file cannot be read or has no such sheet
+     */
+    static ExcelTable parse(Path file, String sheetName, Consumer<List<String>> onRow) {
+        long start = System.nanoTime();
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (!sheets.getSheetName().equals(sheetName)) {
+                        continue;
+                    }
+                    RowCollector rows = new RowCollector(onRow);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                            new ReadOnlySharedStringsTable(pkg), rows, new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+
+                    ExcelTable table = new ExcelTable(sheetName, rows.rows);
+                    logger.info("Parsed " + file.getFileName() + " [" + sheetName + "]: " + table.rowCount()
+                            + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    return table;
+                }
+            }
+            throw new UncheckedIOException(new IOException("Sheet '" + sheetName + "' not found in " + file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new UncheckedIOException(new IOException("Could not read " + file + ": " + e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Collects formatted cell values row by row, filling gaps left by empty rows and cells.
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        final List<List<String>> rows = new ArrayList<>();
+        private final Consumer<List<String>> onRow;
+        private List<String> current;
+
+        RowCollector(Consumer<List<String>> onRow) {
+            this.onRow = onRow;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            while (rows.size() < rowNum) {
+                add(List.of());
+            }
+            current = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            add(Collections.unmodifiableList(current));
+        }
+
+        private void add(List<String> row) {
+            rows.add(row);
+            onRow.accept(row);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? current.size() : new CellReference(cellReference).getCol();
+            while (current.size() < column) {
+                current.add("");
+            }
+            current.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+}